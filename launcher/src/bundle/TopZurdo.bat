@@ -0,0 +1,12 @@
+@echo off
+REM Starts the TopZurdo launcher with its class data sharing archive (see launcher/build.gradle).
+REM It runs from its own folder because the JVM only accepts the archive when the jar is named as at dump time.
+cd /d "%~dp0"
+
+set "JAVAW=javaw"
+if not "%JAVA_HOME%"=="" if exist "%JAVA_HOME%\bin\javaw.exe" set "JAVAW=%JAVA_HOME%\bin\javaw.exe"
+
+set "CDS="
+if exist "@ARCHIVE_NAME@" set "CDS=-XX:SharedArchiveFile=@ARCHIVE_NAME@"
+
+start "" "%JAVAW%" %CDS% -jar "@JAR_NAME@" %*
@@ -0,0 +1,92 @@
+package com.topzurdo.launcher.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+
+/**
+ * Status response handling per ping: the streaming {@link StatusResponse} against the previous
+ * path (decode the whole packet to a String, build a Gson tree, lowercase the JSON for the wipe
+ * check). Payloads: a vanilla server, and a modded one with a Forge mod list and a favicon.
+ *
+ * <p>Run with {@code gradlew :launcher:jmh}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StatusResponseBenchmark {
+
+    @Param({ "0", "400" })
+    public int mods;
+
+    private ByteBuffer json;
+
+    @Setup
+    public void setup() {
+        StringBuilder sb = new StringBuilder(64 * 1024);
+        sb.append("{\"version\":{\"name\":\"Paper 1.16.5\",\"protocol\":754},")
+          .append("\"players\":{\"max\":1000,\"online\":734,\"sample\":[");
+        for (int i = 0; i < 12; i++) {
+            if (i > 0) sb.append(',');
+            sb.append("{\"name\":\"player").append(i).append("\",\"id\":\"00000000-0000-0000-0000-00000000000")
+              .append(Integer.toHexString(i)).append("\"}");
+        }
+        sb.append("]},\"description\":{\"text\":\"\",\"extra\":[{\"color\":\"gold\",\"text\":\"FunTime \"},")
+          .append("{\"color\":\"red\",\"bold\":true,\"text\":\"Вайп 18.10!\"}]}");
+        if (mods > 0) {
+            sb.append(",\"forgeData\":{\"channels\":[],\"mods\":[");
+            for (int i = 0; i < mods; i++) {
+                if (i > 0) sb.append(',');
+                sb.append("{\"modId\":\"examplemod").append(i).append("\",\"modmarker\":\"1.0.").append(i).append("\"}");
+            }
+            sb.append("],\"fmlNetworkVersion\":2}");
+            byte[] png = new byte[9 * 1024];
+            new Random(42).nextBytes(png);
+            sb.append(",\"favicon\":\"data:image/png;base64,").append(Base64.getEncoder().encodeToString(png)).append('"');
+        }
+        sb.append('}');
+        json = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Benchmark
+    public void streaming(Blackhole bh) throws IOException {
+        StatusResponse r = StatusResponse.parse(json);
+        bh.consume(r.getOnlinePlayers());
+        bh.consume(r.getMaxPlayers());
+        bh.consume(StatusResponse.containsIgnoreCase(r.getDescription(), "wipe")
+                || StatusResponse.containsIgnoreCase(r.getDescription(), "вайп"));
+    }
+
+    @Benchmark
+    public void treeAndLowercase(Blackhole bh) {
+        String motd = StandardCharsets.UTF_8.decode(json.duplicate()).toString();
+        JsonObject root = JsonParser.parseString(motd).getAsJsonObject();
+        JsonObject p = root.getAsJsonObject("players");
+        bh.consume(p.get("online").getAsInt());
+        bh.consume(p.get("max").getAsInt());
+        String lower = motd.toLowerCase();
+        bh.consume(lower.contains("wipe") || lower.contains("вайп"));
+    }
+}
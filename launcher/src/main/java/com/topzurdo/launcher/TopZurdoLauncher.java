@@ -1,10 +1,19 @@
 package com.topzurdo.launcher;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 
 import com.topzurdo.launcher.config.LauncherConfig;
 import com.topzurdo.launcher.ui.MainController;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.scene.Scene;
 import javafx.scene.image.Image;
 import javafx.stage.Stage;
@@ -31,6 +40,10 @@ public class TopZurdoLauncher extends Application {
     /** Mods directory inside game dir. */
     public static final Path MODS_DIR = MINECRAFT_DIR.resolve("mods");
 
+    /** Set to true to quit right after the first frame (AppCDS training run, startup measurement). */
+    private static final String EXIT_AFTER_FIRST_FRAME = "topzurdo.exitAfterFirstFrame";
+    private static final Path FIRST_FRAME_LOG = CONFIG_DIR.resolve("logs").resolve("first-frame.log");
+
     private MainController controller;
     private Stage primaryStage;
 
@@ -41,7 +54,9 @@ public class TopZurdoLauncher extends Application {
         LOG.info("Starting {} v{}", APP_NAME, VERSION);
 
         try {
+            long controllerStart = System.nanoTime();
             controller = new MainController(stage);
+            long controllerNanos = System.nanoTime() - controllerStart;
             Scene scene = new Scene(controller.getRoot(), 1000, 650);
             // Premium dark + gold: load tokens first, then main styles
             try {
@@ -64,6 +79,7 @@ public class TopZurdoLauncher extends Application {
             }
 
             stage.show();
+            trackFirstFrame(scene, controllerNanos);
             LOG.info("Launcher started successfully");
 
         } catch (Exception e) {
@@ -72,6 +88,38 @@ public class TopZurdoLauncher extends Application {
         }
     }
 
+    /**
+     * Log the time from JVM start to the first laid-out pulse of the window, and append it to
+     * ~/.topzurdo/logs/first-frame.log so cold starts (with and without the CDS archive) can be compared.
+     */
+    private void trackFirstFrame(Scene scene, long controllerNanos) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            long sinceJvmMs = ProcessHandle.current().info().startInstant()
+                    .map(t -> Duration.between(t, Instant.now()).toMillis())
+                    .orElse(-1L);
+            boolean cds = ProcessHandle.current().info().arguments()
+                    .map(a -> Arrays.stream(a).anyMatch(arg -> arg.startsWith("-XX:SharedArchiveFile")))
+                    .orElse(false);
+            LOG.info("First frame {} ms after JVM start (MainController {} ms, CDS archive {})",
+                    sinceJvmMs, controllerNanos / 1_000_000, cds ? "on" : "off");
+            try {
+                Files.createDirectories(FIRST_FRAME_LOG.getParent());
+                Files.writeString(FIRST_FRAME_LOG,
+                        String.format("%s first-frame=%dms controller=%dms cds=%s%n", LocalDateTime.now(),
+                                sinceJvmMs, controllerNanos / 1_000_000, cds ? "on" : "off"),
+                        StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            } catch (IOException e) {
+                LOG.debug("Could not write first frame timing: {}", e.getMessage());
+            }
+            if (Boolean.getBoolean(EXIT_AFTER_FIRST_FRAME)) {
+                Platform.runLater(Platform::exit);
+            }
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
     @Override
     public void stop() {
         LOG.info("Shutting down launcher");
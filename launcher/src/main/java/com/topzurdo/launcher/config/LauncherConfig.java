@@ -24,14 +24,16 @@ public class LauncherConfig {
     private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
     private static final Path CONFIG_FILE = TopZurdoLauncher.CONFIG_DIR.resolve("launcher.json");
 
-    private static LauncherConfig instance;
+    private static volatile LauncherConfig instance;
 
     // User settings
     private String username = "";
     private List<String> nicknameHistory = new ArrayList<>();
     private int allocatedRamMb = 4096;
     private String javaPath = "";
-    private boolean autoConnect = true;
+    // Joins lastServer on launch only once the user saved a server choice in settings
+    private boolean autoConnect = false;
+    private boolean serverChosen = false;
     private String lastServer = "mc.funtime.su";
     private boolean fullscreen = false;
     private int windowWidth = 1280;
@@ -44,6 +46,17 @@ public class LauncherConfig {
     private String jvmProfile = "MEDIUM";
     private boolean autoRam = false;
 
+    // Download engine: parallel workers and connections per host
+    private int downloadThreads = 8;
+    private int maxConnectionsPerHost = 8;
+    private int httpConnectTimeoutSec = 15;
+    // Wait for response headers, and longest a body read may go without data
+    private int httpReadTimeoutSec = 60;
+    // Shared content-addressed cache of libraries/assets/mods across instances (0 = disabled)
+    private int contentCacheMaxMb = 4096;
+    // Mirrors tried before the official hosts: http(s) base URLs or local/LAN folders, "host/path" layout
+    private List<String> downloadMirrors = new ArrayList<>();
+
     // Visual preferences - passed to mod (serialized as hex in JSON for readability)
     private int preferredColor = 0x22D3EE; // Default cyan
     private String preferredColorHex = "#22D3EE"; // For JSON; synced with preferredColor
@@ -63,30 +76,33 @@ public class LauncherConfig {
     /**
      * Load configuration from file or create default
      */
-    public static LauncherConfig load() {
+    public static synchronized LauncherConfig load() {
         if (instance != null) {
             return instance;
         }
 
+        // Published only when fully set up: getInstance() reads it without the lock
+        LauncherConfig loaded;
         if (Files.exists(CONFIG_FILE)) {
             try {
                 String json = Files.readString(CONFIG_FILE);
-                instance = GSON.fromJson(json, LauncherConfig.class);
-                if (instance.preferredColorHex != null && !instance.preferredColorHex.isEmpty()) {
-                    instance.setPreferredColorFromHex(instance.preferredColorHex);
+                loaded = GSON.fromJson(json, LauncherConfig.class);
+                if (loaded.preferredColorHex != null && !loaded.preferredColorHex.isEmpty()) {
+                    loaded.setPreferredColorFromHex(loaded.preferredColorHex);
                 }
                 LOGGER.info("Loaded configuration from {}", CONFIG_FILE);
             } catch (IOException e) {
                 LOGGER.error("Failed to load config, using defaults", e);
-                instance = new LauncherConfig();
+                loaded = new LauncherConfig();
             }
         } else {
-            instance = new LauncherConfig();
-            instance.detectJavaPath();
-            instance.applyBestDefaults();
-            instance.save();
+            loaded = new LauncherConfig();
+            loaded.detectJavaPath();
+            loaded.applyBestDefaults();
+            loaded.save();
         }
 
+        instance = loaded;
         return instance;
     }
 
@@ -250,6 +266,18 @@ public class LauncherConfig {
         this.autoConnect = autoConnect;
     }
 
+    /**
+     * True once the user saved a server in settings; until then lastServer is only the default
+     * shown in the status pill and never auto-joined.
+     */
+    public boolean isServerChosen() {
+        return serverChosen;
+    }
+
+    public void setServerChosen(boolean serverChosen) {
+        this.serverChosen = serverChosen;
+    }
+
     public String getLastServer() {
         return lastServer;
     }
@@ -348,6 +376,55 @@ public class LauncherConfig {
         this.autoRam = autoRam;
     }
 
+    public int getDownloadThreads() {
+        return downloadThreads > 0 ? downloadThreads : 8;
+    }
+
+    public void setDownloadThreads(int downloadThreads) {
+        this.downloadThreads = downloadThreads;
+    }
+
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost > 0 ? maxConnectionsPerHost : 8;
+    }
+
+    public void setMaxConnectionsPerHost(int maxConnectionsPerHost) {
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+    }
+
+    public int getHttpConnectTimeoutSec() {
+        return httpConnectTimeoutSec > 0 ? httpConnectTimeoutSec : 15;
+    }
+
+    public void setHttpConnectTimeoutSec(int httpConnectTimeoutSec) {
+        this.httpConnectTimeoutSec = httpConnectTimeoutSec;
+    }
+
+    public int getHttpReadTimeoutSec() {
+        return httpReadTimeoutSec > 0 ? httpReadTimeoutSec : 60;
+    }
+
+    public void setHttpReadTimeoutSec(int httpReadTimeoutSec) {
+        this.httpReadTimeoutSec = httpReadTimeoutSec;
+    }
+
+    public int getContentCacheMaxMb() {
+        return Math.max(0, contentCacheMaxMb);
+    }
+
+    public void setContentCacheMaxMb(int contentCacheMaxMb) {
+        this.contentCacheMaxMb = contentCacheMaxMb;
+    }
+
+    public List<String> getDownloadMirrors() {
+        if (downloadMirrors == null) downloadMirrors = new ArrayList<>();
+        return downloadMirrors;
+    }
+
+    public void setDownloadMirrors(List<String> downloadMirrors) {
+        this.downloadMirrors = downloadMirrors != null ? downloadMirrors : new ArrayList<>();
+    }
+
     /** Returns effective JVM args (from profile or custom). */
     public String getEffectiveJvmArgs() {
         return jvmArgs;
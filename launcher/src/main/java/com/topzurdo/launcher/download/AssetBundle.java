@@ -0,0 +1,138 @@
+package com.topzurdo.launcher.download;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.topzurdo.launcher.util.HashUtils;
+
+/**
+ * Single-file asset install from a mirror: a zip of asset objects unpacked in one streaming pass.
+ *
+ * <p>Format: a plain zip served at {@code <mirror>/resources.download.minecraft.net/bundles/<index id>.zip}
+ * whose entries are named by object hash, either flat ({@code <hash>}) or in the objects layout
+ * ({@code <xx>/<hash>}). The asset index is the hash index: only objects it lists (and that are still
+ * missing) are extracted, each is SHA-1 and size checked while it is written and moved into
+ * {@code assets/objects} only if it matches. Other entries are skipped. Sound files are already
+ * compressed, so mirrors should store entries (no deflate) to keep unpacking I/O-bound. Reading stops
+ * as soon as every wanted object is in, so mirrors should put non-sound entries first: a foreground
+ * install that only wants launch-critical objects then never streams the sounds.</p>
+ *
+ * <p>Nothing is buffered beyond one entry and the zip itself is never stored: a bundle that breaks
+ * off midway keeps every object extracted so far, the rest comes per file as usual.</p>
+ */
+final class AssetBundle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AssetBundle.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /** Receives each object moved into place, with its verified SHA-1. */
+    @FunctionalInterface
+    interface Installed {
+        void accept(Path file, String sha1) throws IOException;
+    }
+
+    private AssetBundle() {}
+
+    /**
+     * Upstream-style URL of the bundle for an asset index; only mirrors can serve it.
+     */
+    static String url(String assetsBaseUrl, String assetIndexId) {
+        return assetsBaseUrl + "bundles/" + assetIndexId + ".zip";
+    }
+
+    /**
+     * Unpack the objects of {@code wanted} (hash to size) found in the bundle stream.
+     *
+     * @param bytesWritten every chunk written, as a delta (negative when an object is rejected)
+     * @param objectCount number of objects installed so far
+     * @return hashes installed from the bundle
+     */
+    static Set<String> unpack(InputStream bundle, Map<String, Long> wanted, Path objectsDir,
+                              Installed installed, LongConsumer bytesWritten, IntConsumer objectCount) throws IOException {
+        Set<String> done = new HashSet<>();
+        int rejected = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (ZipInputStream zip = new ZipInputStream(bundle)) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                if (entry.isDirectory()) continue;
+                String hash = hashOf(entry.getName());
+                Long size = hash != null ? wanted.get(hash) : null;
+                if (size == null || done.contains(hash)) continue;
+
+                Path target = objectsDir.resolve(hash.substring(0, 2)).resolve(hash);
+                Files.createDirectories(target.getParent());
+                Path part = target.resolveSibling(hash + ".part");
+                MessageDigest digest = HashUtils.sha1();
+                long written = 0;
+                long reported = 0;
+                try (OutputStream out = Files.newOutputStream(part)) {
+                    int read;
+                    while ((read = zip.read(buffer)) != -1) {
+                        written += read;
+                        if (written > size) break;
+                        out.write(buffer, 0, read);
+                        digest.update(buffer, 0, read);
+                        bytesWritten.accept(read);
+                        reported += read;
+                    }
+                }
+                String sha1 = HashUtils.toHex(digest.digest());
+                if (written != size || !sha1.equalsIgnoreCase(hash)) {
+                    Files.deleteIfExists(part);
+                    bytesWritten.accept(-reported);
+                    rejected++;
+                    LOGGER.warn("Bundle entry {} rejected: {} bytes, SHA-1 {}", entry.getName(), written, sha1);
+                    continue;
+                }
+                moveIntoPlace(part, target);
+                installed.accept(target, hash);
+                done.add(hash);
+                objectCount.accept(done.size());
+                // Everything asked for is in: the rest of the bundle is not needed
+                if (done.size() == wanted.size()) break;
+            }
+        }
+        LOGGER.info("Asset bundle: {} objects installed, {} rejected", done.size(), rejected);
+        return done;
+    }
+
+    /**
+     * Object hash from an entry name ("ab/abcdef..." or "abcdef..."), or null if it is not one.
+     */
+    private static String hashOf(String entryName) {
+        String name = entryName.substring(entryName.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        if (name.length() != 40) return null;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) return null;
+        }
+        return name;
+    }
+
+    private static void moveIntoPlace(Path part, Path target) throws IOException {
+        try {
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
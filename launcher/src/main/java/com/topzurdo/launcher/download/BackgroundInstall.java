@@ -0,0 +1,100 @@
+package com.topzurdo.launcher.download;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Low-priority download of files the game can start without (sounds, music).
+ *
+ * <p>Runs a small {@link ParallelDownloader} ({@value #WORKERS} workers, {@value #PER_HOST} per host)
+ * whose worker threads, like the coordinating one, have minimum priority, so it leaves bandwidth
+ * and CPU to a running game or a foreground install. With a mirror, files are first taken from its
+ * asset bundle on the background thread. Files land through the normal verified pipeline;
+ * anything not finished (cancelled, failed, launcher closed) is simply picked up again by the next
+ * {@link MinecraftDownloader#resumeDeferredAssets()}.</p>
+ *
+ * <p>Minecraft checks sound files when it loads resources and drops the missing ones, so a game
+ * started before this finishes stays silent until resources are reloaded (F3+T) or it restarts.</p>
+ */
+public class BackgroundInstall {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackgroundInstall.class);
+
+    private static final int WORKERS = 2;
+    private static final int PER_HOST = 2;
+
+    private final int total;
+    private final AtomicInteger completed = new AtomicInteger();
+    private final CompletableFuture<Integer> done = new CompletableFuture<>();
+    private final Thread thread;
+
+    /** Bulk transfer tried before the per-file downloads (an asset bundle); returns the SHA-1s it installed. */
+    @FunctionalInterface
+    interface Bulk {
+        Set<String> install(List<ParallelDownloader.DownloadTask> tasks);
+    }
+
+    /**
+     * @param bulk optional bulk step run first on the background thread; files it installs are not fetched
+     */
+    BackgroundInstall(List<ParallelDownloader.DownloadTask> tasks, Bulk bulk, ParallelDownloader.Fetcher fetcher,
+                      Runnable onFinish) {
+        this.total = tasks.size();
+        this.thread = new Thread(() -> {
+            long start = System.nanoTime();
+            try {
+                List<ParallelDownloader.DownloadTask> remaining = tasks;
+                if (bulk != null) {
+                    Set<String> installed = bulk.install(tasks);
+                    remaining = new ArrayList<>(tasks);
+                    remaining.removeIf(t -> installed.contains(t.sha1));
+                }
+                int fromBulk = total - remaining.size();
+                completed.set(fromBulk);
+                List<ParallelDownloader.Failure> failures = new ParallelDownloader(WORKERS, PER_HOST, Thread.MIN_PRIORITY)
+                    .downloadAll(remaining, fetcher, null, done -> completed.set(fromBulk + done));
+                LOGGER.info("Background install finished in {} s: {} files, {} failed",
+                    (System.nanoTime() - start) / 1_000_000_000, total, failures.size());
+                done.complete(failures.size());
+            } catch (InterruptedException e) {
+                LOGGER.info("Background install stopped after {} of {} files", completed.get(), total);
+                done.complete(total - completed.get());
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            } finally {
+                onFinish.run();
+            }
+        }, "Install-Background");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+    }
+
+    void start() {
+        LOGGER.info("Streaming {} deferred files in the background", total);
+        thread.start();
+    }
+
+    public int getTotal() { return total; }
+    public int getCompleted() { return completed.get(); }
+    public boolean isDone() { return done.isDone(); }
+
+    /**
+     * Completes with the number of files that were not installed (0 when everything arrived).
+     */
+    public CompletableFuture<Integer> whenDone() {
+        return done;
+    }
+
+    /**
+     * Stop after the transfers in flight; the rest is resumed next time.
+     */
+    public void cancel() {
+        thread.interrupt();
+    }
+}
@@ -0,0 +1,312 @@
+package com.topzurdo.launcher.download;
+
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.topzurdo.launcher.TopZurdoLauncher;
+import com.topzurdo.launcher.config.LauncherConfig;
+import com.topzurdo.launcher.util.HashUtils;
+
+/**
+ * Content-addressed file cache shared by every game directory on the machine
+ * (~/.topzurdo/cache/objects/&lt;sha1[0..2]&gt;/&lt;sha1&gt;).
+ *
+ * <p>Downloaded libraries, assets and mods are added by SHA-1; a later install of the same
+ * file in any instance is materialized from here with a hard link (or, when the store and the
+ * instance are on different volumes, a copy-on-write clone where possible, else a copy)
+ * instead of being downloaded again.
+ * The store is bounded by {@link LauncherConfig#getContentCacheMaxMb()}; least recently
+ * used objects are evicted first. Evicting an object never affects instances that
+ * hard-linked it — they keep their own link to the data.</p>
+ *
+ * <p>A hard-linked object shares its data with every instance that uses it, so one in-place write
+ * would spread everywhere. Each object's mtime is recorded; an object whose mtime changed is re-hashed
+ * before it is materialized again and dropped if it no longer matches.</p>
+ */
+public final class ContentStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContentStore.class);
+    private static final Gson GSON = new Gson();
+    private static final Path DEFAULT_ROOT = TopZurdoLauncher.CONFIG_DIR.resolve("cache");
+
+    /** Files smaller than this are copied rather than cloned with an external {@code cp}. */
+    private static final long REFLINK_MIN_BYTES = 1024 * 1024;
+    /** File systems whose clones ({@code FICLONE}) may cross volumes of the same file system. */
+    private static final Set<String> CLONE_FS_TYPES = Set.of("btrfs", "xfs");
+    /** Source/target volume pairs where a clone failed once; not retried this session. */
+    private static final Set<List<FileStore>> NO_REFLINK = ConcurrentHashMap.newKeySet();
+
+    private static volatile ContentStore shared;
+
+    private final Path objectsDir;
+    private final Path indexFile;
+    private final long maxBytes;
+    private final ConcurrentHashMap<String, Entry> index;
+    private volatile boolean dirty;
+
+    ContentStore(Path root, long maxBytes) {
+        this.objectsDir = root.resolve("objects");
+        this.indexFile = root.resolve("index.json");
+        this.maxBytes = maxBytes;
+        this.index = loadIndex(indexFile);
+    }
+
+    public static ContentStore shared() {
+        ContentStore s = shared;
+        if (s == null) {
+            synchronized (ContentStore.class) {
+                s = shared;
+                if (s == null) {
+                    long maxMb = LauncherConfig.getInstance().getContentCacheMaxMb();
+                    s = new ContentStore(DEFAULT_ROOT, maxMb * 1024 * 1024);
+                    shared = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * Place the object with this SHA-1 at {@code target} if the store has it.
+     *
+     * @return true if the target now holds the object; false on a cache miss
+     */
+    public boolean materialize(String sha1, Path target) {
+        if (sha1 == null || sha1.isEmpty()) return false;
+        String key = sha1.toLowerCase();
+        Entry entry = index.get(key);
+        if (entry == null) return false;
+        Path object = objectPath(key);
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(object, BasicFileAttributes.class);
+            if (attrs.size() != entry.size) {
+                forget(key, object);
+                return false;
+            }
+            long mtime = attrs.lastModifiedTime().toMillis();
+            if (mtime != entry.mtime) {
+                // Written since it was stored (through any hard link to it): re-hash before sharing it again
+                if (!key.equals(HashUtils.sha1Hex(object))) {
+                    LOGGER.warn("Content store object {} was modified, dropping it", key);
+                    forget(key, object);
+                    return false;
+                }
+                entry.mtime = mtime;
+            }
+            Files.createDirectories(target.getParent());
+            linkOrCopy(object, target);
+            entry.lastAccess = System.currentTimeMillis();
+            dirty = true;
+            LOGGER.debug("Content store hit {} -> {}", key, target);
+            return true;
+        } catch (IOException e) {
+            LOGGER.debug("Content store could not materialize {}: {}", key, e.getMessage());
+            forget(key, object);
+            return false;
+        }
+    }
+
+    /**
+     * Add a verified file to the store under its SHA-1 (no-op if already present).
+     */
+    public void put(String sha1, Path source) {
+        if (sha1 == null || sha1.isEmpty() || maxBytes <= 0) return;
+        String key = sha1.toLowerCase();
+        if (index.containsKey(key)) return;
+        Path object = objectPath(key);
+        try {
+            Files.createDirectories(object.getParent());
+            if (!Files.exists(object)) {
+                linkOrCopy(source, object);
+            }
+            BasicFileAttributes attrs = Files.readAttributes(object, BasicFileAttributes.class);
+            Entry entry = new Entry();
+            entry.size = attrs.size();
+            entry.mtime = attrs.lastModifiedTime().toMillis();
+            entry.lastAccess = System.currentTimeMillis();
+            index.put(key, entry);
+            dirty = true;
+        } catch (IOException e) {
+            LOGGER.debug("Content store could not add {}: {}", key, e.getMessage());
+        }
+    }
+
+    /**
+     * Evict least recently used objects above the size budget and persist the index.
+     * Call once at the end of an install rather than per file.
+     */
+    public synchronized void flush() {
+        evict();
+        if (!dirty) return;
+        dirty = false;
+        try {
+            Files.createDirectories(indexFile.getParent());
+            Index data = new Index();
+            data.objects = index;
+            Path tmp = indexFile.resolveSibling("index.json.tmp");
+            Files.writeString(tmp, GSON.toJson(data));
+            Files.move(tmp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            dirty = true;
+            LOGGER.warn("Could not save content store index: {}", e.getMessage());
+        }
+    }
+
+    private void evict() {
+        long total = 0;
+        for (Entry e : index.values()) total += e.size;
+        if (total <= maxBytes) return;
+
+        List<Map.Entry<String, Entry>> byAge = new ArrayList<>(index.entrySet());
+        byAge.sort(Comparator.comparingLong(e -> e.getValue().lastAccess));
+        int evicted = 0;
+        for (Map.Entry<String, Entry> e : byAge) {
+            if (total <= maxBytes) break;
+            forget(e.getKey(), objectPath(e.getKey()));
+            total -= e.getValue().size;
+            evicted++;
+        }
+        LOGGER.info("Content store: evicted {} objects, {} MB kept", evicted, total / (1024 * 1024));
+    }
+
+    /**
+     * Drop an object that turned out to be bad (e.g. a corrupted install file hard-linked to it),
+     * so it is never materialized again.
+     */
+    public void invalidate(String sha1) {
+        if (sha1 == null || sha1.isEmpty()) return;
+        String key = sha1.toLowerCase();
+        if (index.containsKey(key)) forget(key, objectPath(key));
+    }
+
+    private void forget(String key, Path object) {
+        index.remove(key);
+        dirty = true;
+        try {
+            Files.deleteIfExists(object);
+        } catch (IOException e) {
+            LOGGER.debug("Could not delete {}: {}", object, e.getMessage());
+        }
+    }
+
+    private Path objectPath(String key) {
+        return objectsDir.resolve(key.substring(0, 2)).resolve(key);
+    }
+
+    /**
+     * Hard link {@code target} to {@code source}, else copy it. Any existing target is replaced.
+     *
+     * <p>Hard links cannot cross volumes, but copy-on-write clones can cross volumes of one Btrfs or
+     * XFS file system (Btrfs subvolumes such as a separate /home, bind mounts). For that case the
+     * clone ({@code cp --reflink}) is tried first; everywhere else a link failure means a copy.</p>
+     *
+     * @return how the target was placed
+     */
+    static Placement linkOrCopy(Path source, Path target) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".link");
+        Files.deleteIfExists(tmp);
+        Placement placement;
+        List<FileStore> volumes = cloneVolumes(source, target.getParent());
+        if (volumes != null && reflink(source, tmp, volumes)) {
+            placement = Placement.REFLINK;
+        } else {
+            try {
+                Files.createLink(tmp, source);
+                placement = Placement.LINK;
+            } catch (UnsupportedOperationException | IOException e) {
+                Files.copy(source, tmp, StandardCopyOption.REPLACE_EXISTING);
+                placement = Placement.COPY;
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        return placement;
+    }
+
+    /**
+     * The (source, target) volumes if a clone is worth trying: Linux, a large file (spawning
+     * {@code cp} costs more than copying a small one), two different volumes of the same
+     * clone-capable type, and no failed clone between them this session. Otherwise null.
+     */
+    private static List<FileStore> cloneVolumes(Path source, Path targetDir) {
+        if (!System.getProperty("os.name").toLowerCase().contains("linux")) return null;
+        try {
+            if (Files.size(source) < REFLINK_MIN_BYTES) return null;
+            FileStore from = Files.getFileStore(source);
+            FileStore to = Files.getFileStore(targetDir);
+            if (from.equals(to) || !from.type().equals(to.type()) || !CLONE_FS_TYPES.contains(from.type())) {
+                return null;
+            }
+            List<FileStore> volumes = List.of(from, to);
+            return NO_REFLINK.contains(volumes) ? null : volumes;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Copy-on-write clone via {@code cp}; given up for a pair of volumes after the first failure
+     * (they belong to different file systems of the same type).
+     */
+    private static boolean reflink(Path source, Path target, List<FileStore> volumes) {
+        // "always" rather than "auto": auto silently falls back to a copy, and we want to know
+        List<String> cmd = List.of("cp", "--reflink=always", source.toString(), target.toString());
+        try {
+            Process p = new ProcessBuilder(cmd).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+            if (p.waitFor(30, TimeUnit.SECONDS) && p.exitValue() == 0) return true;
+            p.destroyForcibly();
+        } catch (IOException e) {
+            LOGGER.debug("cp unavailable: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        NO_REFLINK.add(volumes);
+        try {
+            Files.deleteIfExists(target);
+        } catch (IOException ignored) { }
+        LOGGER.debug("No copy-on-write clones from {} to {}, copying", volumes.get(0), volumes.get(1));
+        return false;
+    }
+
+    /** How {@link #linkOrCopy} placed a file. */
+    enum Placement { LINK, REFLINK, COPY }
+
+    private static ConcurrentHashMap<String, Entry> loadIndex(Path indexFile) {
+        if (Files.exists(indexFile)) {
+            try {
+                Index data = GSON.fromJson(Files.readString(indexFile), Index.class);
+                if (data != null && data.objects != null) return data.objects;
+            } catch (IOException | JsonSyntaxException e) {
+                LOGGER.warn("Content store index unreadable, starting empty: {}", e.getMessage());
+            }
+        }
+        return new ConcurrentHashMap<>();
+    }
+
+    private static class Entry {
+        long size;
+        /** Object mtime when stored or last verified; 0 in indexes written before it was recorded. */
+        long mtime;
+        long lastAccess;
+    }
+
+    private static class Index {
+        ConcurrentHashMap<String, Entry> objects;
+    }
+}
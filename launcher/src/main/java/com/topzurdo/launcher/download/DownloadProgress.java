@@ -0,0 +1,165 @@
+package com.topzurdo.launcher.download;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Aggregated, byte-accurate progress of an install.
+ *
+ * <p>Download workers only bump atomic counters ({@link #add}); nothing is pushed anywhere.
+ * A UI sampler calls {@link #sample()} at a fixed rate and gets totals, throughput and ETA
+ * in one immutable {@link Snapshot}. Totals grow as stages learn their sizes (asset bytes are
+ * known only after the asset index is fetched), so ETA covers what has been planned so far.</p>
+ */
+public class DownloadProgress {
+
+    /** Install stages in execution order. */
+    public enum Stage {
+        CLIENT("Клиент"),
+        LIBRARIES("Библиотеки"),
+        NATIVES("Нативные библиотеки"),
+        ASSETS("Ресурсы"),
+        FABRIC("Fabric"),
+        MODS("Моды"),
+        /** Deferred assets (sounds, music) streamed after the game is playable. */
+        BACKGROUND("Звуки и музыка (в фоне)"),
+        /** Files re-downloaded by a repair. */
+        REPAIR("Восстановление");
+
+        private final String displayName;
+
+        Stage(String displayName) {
+            this.displayName = displayName;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+    }
+
+    /** Weight of the newest throughput sample in the moving average. */
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final Map<Stage, AtomicLong> planned = new EnumMap<>(Stage.class);
+    private final Map<Stage, AtomicLong> done = new EnumMap<>(Stage.class);
+    private volatile Stage current;
+
+    private long lastSampleNanos;
+    private long lastSampleBytes;
+    private double bytesPerSecond;
+
+    public DownloadProgress() {
+        for (Stage s : Stage.values()) {
+            planned.put(s, new AtomicLong());
+            done.put(s, new AtomicLong());
+        }
+    }
+
+    /**
+     * Clear all counters before a new install.
+     */
+    public synchronized void reset() {
+        for (Stage s : Stage.values()) {
+            planned.get(s).set(0);
+            done.get(s).set(0);
+        }
+        current = null;
+        lastSampleNanos = 0;
+        lastSampleBytes = 0;
+        bytesPerSecond = 0;
+    }
+
+    /**
+     * Mark {@code stage} as running and add {@code bytes} to what it is expected to transfer.
+     */
+    public void plan(Stage stage, long bytes) {
+        current = stage;
+        if (bytes > 0) planned.get(stage).addAndGet(bytes);
+    }
+
+    /**
+     * Bytes transferred for {@code stage}; negative deltas undo a failed attempt. Safe from any thread.
+     */
+    public void add(Stage stage, long delta) {
+        done.get(stage).addAndGet(delta);
+    }
+
+    /**
+     * Stage finished: its total becomes what was actually transferred (skipped or failed files drop out).
+     */
+    public void finish(Stage stage) {
+        planned.get(stage).set(Math.max(0, done.get(stage).get()));
+    }
+
+    /**
+     * Take a snapshot and update the throughput estimate. Intended for a single periodic sampler.
+     */
+    public synchronized Snapshot sample() {
+        long total = 0;
+        long transferred = 0;
+        List<StageProgress> stages = new ArrayList<>();
+        for (Stage s : Stage.values()) {
+            long p = planned.get(s).get();
+            long d = Math.max(0, done.get(s).get());
+            total += Math.max(p, d);
+            transferred += d;
+            if (p > 0 || d > 0) stages.add(new StageProgress(s, d, Math.max(p, d)));
+        }
+
+        long now = System.nanoTime();
+        if (lastSampleNanos != 0 && now > lastSampleNanos) {
+            double seconds = (now - lastSampleNanos) / 1e9;
+            double rate = Math.max(0, transferred - lastSampleBytes) / seconds;
+            bytesPerSecond = bytesPerSecond == 0 ? rate : RATE_SMOOTHING * rate + (1 - RATE_SMOOTHING) * bytesPerSecond;
+        }
+        lastSampleNanos = now;
+        lastSampleBytes = transferred;
+
+        long eta = bytesPerSecond >= 1 ? (long) ((total - transferred) / bytesPerSecond) : -1;
+        return new Snapshot(current, total, transferred, (long) bytesPerSecond, eta,
+            Collections.unmodifiableList(stages));
+    }
+
+    /**
+     * Immutable view of the install progress at one instant.
+     */
+    public static class Snapshot {
+        /** Stage currently running, or null before the first one. */
+        public final Stage stage;
+        public final long totalBytes;
+        public final long doneBytes;
+        public final long bytesPerSecond;
+        /** Estimated seconds left for the planned bytes, or -1 if unknown. */
+        public final long etaSeconds;
+        public final List<StageProgress> stages;
+
+        Snapshot(Stage stage, long totalBytes, long doneBytes, long bytesPerSecond, long etaSeconds,
+                 List<StageProgress> stages) {
+            this.stage = stage;
+            this.totalBytes = totalBytes;
+            this.doneBytes = doneBytes;
+            this.bytesPerSecond = bytesPerSecond;
+            this.etaSeconds = etaSeconds;
+            this.stages = stages;
+        }
+    }
+
+    /**
+     * Bytes done / planned for one stage.
+     */
+    public static class StageProgress {
+        public final Stage stage;
+        public final long doneBytes;
+        public final long totalBytes;
+
+        StageProgress(Stage stage, long doneBytes, long totalBytes) {
+            this.stage = stage;
+            this.doneBytes = doneBytes;
+            this.totalBytes = totalBytes;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.topzurdo.launcher.download;
+
+import java.net.URI;
+
+/**
+ * Where game files can be fetched from. The downloader always works with the upstream URLs
+ * (Mojang, Fabric, Maven Central); a source maps an upstream URL to the location where it serves
+ * the same bytes — an HTTP mirror on the LAN, a shared folder, or the upstream host itself.
+ *
+ * <p>Mirrors use the "host/path" layout: {@code https://libraries.minecraft.net/org/lwjgl/...}
+ * is looked up as {@code <base>/libraries.minecraft.net/org/lwjgl/...}.</p>
+ *
+ * @see DownloadSources
+ */
+public interface DownloadSource {
+
+    String getName();
+
+    /**
+     * Location of {@code upstreamUrl} in this source ({@code http(s):} or {@code file:}),
+     * or null when this source cannot serve it.
+     */
+    URI resolve(String upstreamUrl);
+
+    /**
+     * Round-trip time of a cheap probe in milliseconds, or -1 if the source is unreachable.
+     */
+    long probeLatencyMs();
+
+    /**
+     * Upstream path in mirror layout: "host/path" without a leading slash, or null for non-HTTP URLs.
+     */
+    static String mirrorPath(String upstreamUrl) {
+        URI uri = URI.create(upstreamUrl);
+        if (uri.getHost() == null || uri.getRawPath() == null) return null;
+        String path = uri.getRawPath().startsWith("/") ? uri.getRawPath().substring(1) : uri.getRawPath();
+        return uri.getHost() + "/" + path;
+    }
+}
@@ -0,0 +1,248 @@
+package com.topzurdo.launcher.download;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpResponse;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.topzurdo.launcher.config.LauncherConfig;
+
+/**
+ * Ordered list of {@link DownloadSource}s used for every game file.
+ *
+ * <p>Configured mirrors ({@link LauncherConfig#getDownloadMirrors()}) are probed once, in parallel,
+ * on first use; reachable ones are tried fastest first, unreachable ones are dropped for the session.
+ * The upstream hosts are always the last source, so a mirror that lacks a file (404, missing in the
+ * folder) or fails mid-session just falls through to the next one.</p>
+ */
+public final class DownloadSources {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DownloadSources.class);
+
+    /** The official hosts: every URL is served as-is. */
+    static final DownloadSource UPSTREAM = new DownloadSource() {
+        @Override
+        public String getName() {
+            return "upstream";
+        }
+
+        @Override
+        public URI resolve(String upstreamUrl) {
+            return URI.create(upstreamUrl);
+        }
+
+        @Override
+        public long probeLatencyMs() {
+            return 0;
+        }
+    };
+
+    private static volatile DownloadSources shared;
+
+    private final List<DownloadSource> configured;
+    private volatile List<DownloadSource> ranked;
+
+    public DownloadSources(List<DownloadSource> mirrors) {
+        this.configured = List.copyOf(mirrors);
+    }
+
+    /**
+     * Sources from the launcher config, created once per process.
+     */
+    public static DownloadSources shared() {
+        DownloadSources s = shared;
+        if (s == null) {
+            synchronized (DownloadSources.class) {
+                s = shared;
+                if (s == null) {
+                    s = new DownloadSources(parse(LauncherConfig.getInstance().getDownloadMirrors()));
+                    shared = s;
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * "http://..." / "https://..." is an HTTP mirror; a "file:" URI or a plain path is a directory mirror.
+     */
+    static List<DownloadSource> parse(List<String> specs) {
+        List<DownloadSource> sources = new ArrayList<>();
+        for (String spec : specs) {
+            if (spec == null || spec.isBlank()) continue;
+            String s = spec.trim();
+            try {
+                if (s.startsWith("http://") || s.startsWith("https://")) {
+                    sources.add(new HttpMirrorSource(s));
+                } else if (s.startsWith("file:")) {
+                    sources.add(new LocalDirectorySource(Paths.get(URI.create(s))));
+                } else {
+                    sources.add(new LocalDirectorySource(Paths.get(s)));
+                }
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Ignoring invalid download mirror '{}': {}", s, e.getMessage());
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Sources in the order they are tried: reachable mirrors by latency, then upstream.
+     */
+    public List<DownloadSource> ordered() {
+        List<DownloadSource> r = ranked;
+        if (r == null) {
+            synchronized (this) {
+                r = ranked;
+                if (r == null) {
+                    r = rank();
+                    ranked = r;
+                }
+            }
+        }
+        return r;
+    }
+
+    private List<DownloadSource> rank() {
+        if (configured.isEmpty()) return List.of(UPSTREAM);
+
+        List<CompletableFuture<Long>> probes = new ArrayList<>();
+        for (DownloadSource source : configured) {
+            probes.add(CompletableFuture.supplyAsync(source::probeLatencyMs));
+        }
+        List<DownloadSource> result = new ArrayList<>();
+        List<Long> latency = new ArrayList<>();
+        for (int i = 0; i < configured.size(); i++) {
+            long ms = probes.get(i).join();
+            DownloadSource source = configured.get(i);
+            if (ms < 0) {
+                LOGGER.warn("Download mirror {} is unreachable, skipping it", source.getName());
+                continue;
+            }
+            LOGGER.info("Download mirror {}: {} ms", source.getName(), ms);
+            // Insertion after equal latencies keeps the configured order between them
+            int pos = 0;
+            while (pos < latency.size() && latency.get(pos) <= ms) pos++;
+            result.add(pos, source);
+            latency.add(pos, ms);
+        }
+        result.add(UPSTREAM);
+        return List.copyOf(result);
+    }
+
+    /**
+     * Open {@code upstreamUrl} starting at {@code offset} from the first source that has it.
+     * Same status contract as {@link LauncherHttp#getRange}: 200, 206 or 416.
+     */
+    public Response openRange(String upstreamUrl, long offset) throws IOException {
+        IOException lastError = null;
+        for (DownloadSource source : ordered()) {
+            URI uri = source.resolve(upstreamUrl);
+            if (uri == null) continue;
+            try {
+                return open(uri, offset);
+            } catch (IOException e) {
+                if (LauncherHttp.isCancellation(e)) throw e;
+                lastError = e;
+                LOGGER.debug("{} not available from {}: {}", upstreamUrl, source.getName(), e.getMessage());
+            }
+        }
+        throw lastError != null ? lastError : new IOException("No download source for " + upstreamUrl);
+    }
+
+    /**
+     * Whether any mirror is configured and reachable.
+     */
+    public boolean hasMirrors() {
+        return ordered().size() > 1;
+    }
+
+    /**
+     * Open a file only mirrors provide (e.g. an asset bundle): like {@link #openRange} from offset 0,
+     * but upstream is never asked.
+     */
+    public Response openFromMirrors(String upstreamUrl) throws IOException {
+        IOException lastError = null;
+        for (DownloadSource source : ordered()) {
+            if (source == UPSTREAM) continue;
+            URI uri = source.resolve(upstreamUrl);
+            if (uri == null) continue;
+            try {
+                Response response = open(uri, 0);
+                if (response.statusCode == 200) return response;
+                response.close();
+                lastError = new IOException("HTTP " + response.statusCode);
+            } catch (IOException e) {
+                if (LauncherHttp.isCancellation(e)) throw e;
+                lastError = e;
+                LOGGER.debug("{} not available from {}: {}", upstreamUrl, source.getName(), e.getMessage());
+            }
+        }
+        throw lastError != null ? lastError : new IOException("No mirror has " + upstreamUrl);
+    }
+
+    /**
+     * GET the whole document as a UTF-8 string from the first source that has it.
+     */
+    public String getString(String upstreamUrl) throws IOException {
+        try (Response response = openRange(upstreamUrl, 0)) {
+            return new String(response.body.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    public JsonElement getJson(String upstreamUrl) throws IOException {
+        return JsonParser.parseString(getString(upstreamUrl));
+    }
+
+    private static Response open(URI uri, long offset) throws IOException {
+        if ("file".equals(uri.getScheme())) {
+            Path file = Paths.get(uri);
+            FileChannel channel = FileChannel.open(file);
+            long size = channel.size();
+            if (offset >= size && offset > 0) {
+                channel.close();
+                return new Response(416, InputStream.nullInputStream(), 0);
+            }
+            channel.position(offset);
+            return new Response(offset > 0 ? 206 : 200, Channels.newInputStream(channel), size - offset);
+        }
+        HttpResponse<InputStream> response = LauncherHttp.getRange(uri.toString(), offset);
+        long length = response.headers().firstValueAsLong("Content-Length").orElse(-1);
+        return new Response(response.statusCode(), response.body(), length);
+    }
+
+    /**
+     * Body of a (possibly partial) fetch from one source. Must be closed.
+     */
+    public static final class Response implements Closeable {
+        public final int statusCode;
+        public final InputStream body;
+        /** Length of the body, or -1 if unknown. */
+        public final long contentLength;
+
+        Response(int statusCode, InputStream body, long contentLength) {
+            this.statusCode = statusCode;
+            this.body = body;
+            this.contentLength = contentLength;
+        }
+
+        @Override
+        public void close() throws IOException {
+            body.close();
+        }
+    }
+}
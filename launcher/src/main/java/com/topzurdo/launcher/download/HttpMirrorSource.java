@@ -0,0 +1,47 @@
+package com.topzurdo.launcher.download;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * HTTP(S) mirror serving upstream files in "host/path" layout under a base URL,
+ * e.g. a classroom cache server at {@code http://192.168.1.10:8080/}.
+ */
+public class HttpMirrorSource implements DownloadSource {
+
+    private final String baseUrl;
+
+    public HttpMirrorSource(String baseUrl) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    @Override
+    public String getName() {
+        return baseUrl;
+    }
+
+    @Override
+    public URI resolve(String upstreamUrl) {
+        String path = DownloadSource.mirrorPath(upstreamUrl);
+        return path != null ? URI.create(baseUrl + path) : null;
+    }
+
+    @Override
+    public long probeLatencyMs() {
+        HttpRequest request = LauncherHttp.request(baseUrl)
+            .method("HEAD", HttpRequest.BodyPublishers.noBody())
+            .timeout(Duration.ofSeconds(3))
+            .build();
+        long start = System.nanoTime();
+        try {
+            HttpResponse<Void> response = LauncherHttp.send(request, HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() >= 500) return -1;
+            return (System.nanoTime() - start) / 1_000_000;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+}
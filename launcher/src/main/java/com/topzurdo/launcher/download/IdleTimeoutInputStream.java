@@ -0,0 +1,139 @@
+package com.topzurdo.launcher.download;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.SocketTimeoutException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Response body that fails with {@link SocketTimeoutException} when a single read waits longer than
+ * the idle timeout for data.
+ *
+ * <p>{@code HttpRequest.timeout} only bounds the wait for the response headers; a body that stalls
+ * mid-transfer would block {@code read()} forever. One shared watchdog thread checks every open
+ * stream once per second and aborts a read that has been blocked too long: it interrupts the reader
+ * (whose interrupt flag is cleared again before the timeout is reported) and closes the stream,
+ * cancelling the HTTP exchange.</p>
+ */
+final class IdleTimeoutInputStream extends FilterInputStream {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IdleTimeoutInputStream.class);
+
+    private static final Set<IdleTimeoutInputStream> OPEN = ConcurrentHashMap.newKeySet();
+    private static volatile ScheduledExecutorService watchdog;
+
+    private final long timeoutNanos;
+    /** Thread blocked in a read, or null; guarded by {@code this} together with the interrupt. */
+    private Thread reader;
+    private long readStart;
+    private volatile boolean timedOut;
+
+    IdleTimeoutInputStream(InputStream in, long timeoutSec) {
+        super(in);
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSec);
+        startWatchdog();
+        OPEN.add(this);
+    }
+
+    @Override
+    public int read() throws IOException {
+        begin();
+        try {
+            return super.read();
+        } catch (IOException e) {
+            throw translate(e);
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        begin();
+        try {
+            return super.read(b, off, len);
+        } catch (IOException e) {
+            throw translate(e);
+        } finally {
+            end();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        OPEN.remove(this);
+        super.close();
+    }
+
+    private void begin() throws IOException {
+        if (timedOut) throw timeout();
+        synchronized (this) {
+            readStart = System.nanoTime();
+            reader = Thread.currentThread();
+        }
+    }
+
+    private void end() {
+        synchronized (this) {
+            reader = null;
+        }
+        // Interrupted by the watchdog while reading: the flag must not leak into later work
+        if (timedOut) Thread.interrupted();
+    }
+
+    private IOException translate(IOException e) {
+        if (!timedOut) return e;
+        Thread.interrupted();
+        SocketTimeoutException t = timeout();
+        t.initCause(e);
+        return t;
+    }
+
+    private SocketTimeoutException timeout() {
+        return new SocketTimeoutException("No data for " + TimeUnit.NANOSECONDS.toSeconds(timeoutNanos) + " s");
+    }
+
+    /**
+     * Watchdog tick: abort this stream if its current read has been blocked longer than the timeout.
+     */
+    private void check(long now) {
+        synchronized (this) {
+            Thread t = reader;
+            if (t == null || timedOut || now - readStart < timeoutNanos) return;
+            timedOut = true;
+            t.interrupt();
+        }
+        OPEN.remove(this);
+        LOGGER.debug("Aborting stalled response body after {} s", TimeUnit.NANOSECONDS.toSeconds(timeoutNanos));
+        try {
+            in.close();
+        } catch (IOException | RuntimeException e) {
+            // Closing is best effort; the interrupt already unblocks the reader
+        }
+    }
+
+    private static void startWatchdog() {
+        if (watchdog != null) return;
+        synchronized (IdleTimeoutInputStream.class) {
+            if (watchdog != null) return;
+            ScheduledExecutorService s = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "Http-Idle-Watchdog");
+                t.setDaemon(true);
+                return t;
+            });
+            s.scheduleWithFixedDelay(() -> {
+                long now = System.nanoTime();
+                for (IdleTimeoutInputStream stream : OPEN) stream.check(now);
+            }, 1, 1, TimeUnit.SECONDS);
+            watchdog = s;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.topzurdo.launcher.download;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.topzurdo.launcher.util.HashUtils;
+
+/**
+ * Persisted index of installed game files (install-manifest.json in the game dir).
+ * Every file the downloader writes is recorded with its size, SHA-1 and mtime, so
+ * "is it installed?" is a map lookup instead of a {@code Files.exists} per object.
+ *
+ * <p>The index trusts itself on the hot path; {@link #verify()} re-checks every entry
+ * against the disk (stat, and re-hash when size or mtime changed) and drops stale ones.</p>
+ */
+public final class InstallManifest {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstallManifest.class);
+    private static final Gson GSON = new Gson();
+    private static final String FILE_NAME = "install-manifest.json";
+    private static final Map<Path, InstallManifest> LOADED = new ConcurrentHashMap<>();
+
+    private final Path gameDir;
+    private final Path manifestFile;
+    private final ConcurrentHashMap<String, Entry> files;
+    private volatile boolean dirty;
+
+    private InstallManifest(Path gameDir, ConcurrentHashMap<String, Entry> files) {
+        this.gameDir = gameDir;
+        this.manifestFile = gameDir.resolve(FILE_NAME);
+        this.files = files;
+    }
+
+    /**
+     * Manifest for a game directory, loaded once per process and shared.
+     */
+    public static InstallManifest forDir(Path gameDir) {
+        Path key = gameDir.toAbsolutePath().normalize();
+        return LOADED.computeIfAbsent(key, InstallManifest::load);
+    }
+
+    private static InstallManifest load(Path gameDir) {
+        Path file = gameDir.resolve(FILE_NAME);
+        if (Files.exists(file)) {
+            try {
+                Data data = GSON.fromJson(Files.readString(file), Data.class);
+                if (data != null && data.files != null) {
+                    LOGGER.info("Loaded install manifest: {} files", data.files.size());
+                    return new InstallManifest(gameDir, data.files);
+                }
+            } catch (IOException | JsonSyntaxException e) {
+                LOGGER.warn("Install manifest unreadable, starting empty: {}", e.getMessage());
+            }
+        }
+        return new InstallManifest(gameDir, new ConcurrentHashMap<>());
+    }
+
+    /**
+     * O(1) check: the file was written (or adopted) by the launcher and not invalidated since.
+     */
+    public boolean contains(Path file) {
+        return files.containsKey(key(file));
+    }
+
+    /**
+     * Same as {@link #contains(Path)}, additionally requiring a matching SHA-1 when one is known.
+     */
+    public boolean contains(Path file, String sha1) {
+        Entry e = files.get(key(file));
+        if (e == null) return false;
+        return sha1 == null || e.sha1 == null || e.sha1.equalsIgnoreCase(sha1);
+    }
+
+    /**
+     * One stat: the file is recorded with this SHA-1 and its size and mtime are unchanged on disk.
+     */
+    public boolean isCurrent(Path file, String sha1) {
+        Entry e = files.get(key(file));
+        if (e == null || sha1 == null || e.sha1 == null || !e.sha1.equalsIgnoreCase(sha1)) return false;
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            return attrs.size() == e.size && attrs.lastModifiedTime().toMillis() == e.mtime;
+        } catch (IOException ex) {
+            return false;
+        }
+    }
+
+    public int size() {
+        return files.size();
+    }
+
+    /**
+     * Record a file that was just written. Reads its attributes once.
+     */
+    public void record(Path file, String sha1) throws IOException {
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        Entry e = new Entry();
+        e.size = attrs.size();
+        e.mtime = attrs.lastModifiedTime().toMillis();
+        e.sha1 = sha1;
+        files.put(key(file), e);
+        dirty = true;
+    }
+
+    /**
+     * Adopt a file installed before the manifest existed: one stat, size must match when known.
+     *
+     * @return true if the file is present and now recorded
+     */
+    public boolean adopt(Path file, long expectedSize, String sha1) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            if (expectedSize > 0 && attrs.size() != expectedSize) return false;
+            Entry e = new Entry();
+            e.size = attrs.size();
+            e.mtime = attrs.lastModifiedTime().toMillis();
+            e.sha1 = sha1;
+            files.put(key(file), e);
+            dirty = true;
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            LOGGER.debug("Could not stat {}: {}", file, e.getMessage());
+            return false;
+        }
+    }
+
+    public void remove(Path file) {
+        if (files.remove(key(file)) != null) dirty = true;
+    }
+
+    /**
+     * Write the manifest if anything changed (temp file + atomic move).
+     */
+    public synchronized void save() {
+        if (!dirty) return;
+        dirty = false;
+        try {
+            Files.createDirectories(gameDir);
+            Data data = new Data();
+            data.files = files;
+            Path tmp = manifestFile.resolveSibling(FILE_NAME + ".tmp");
+            Files.writeString(tmp, GSON.toJson(data));
+            try {
+                Files.move(tmp, manifestFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, manifestFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            LOGGER.debug("Saved install manifest ({} files)", files.size());
+        } catch (IOException e) {
+            dirty = true;
+            LOGGER.warn("Failed to save install manifest: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Full verify: stat every entry, re-hash those whose size or mtime changed and drop anything
+     * missing or corrupt. Slow on large installs — run it off the UI thread.
+     *
+     * @return number of entries removed
+     */
+    public int verify() {
+        int removed = 0;
+        for (Map.Entry<String, Entry> me : files.entrySet()) {
+            Path file = gameDir.resolve(me.getKey());
+            Entry e = me.getValue();
+            boolean ok;
+            try {
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                long mtime = attrs.lastModifiedTime().toMillis();
+                if (attrs.size() != e.size) {
+                    ok = false;
+                } else if (mtime != e.mtime) {
+                    ok = e.sha1 == null || e.sha1.equalsIgnoreCase(HashUtils.sha1Hex(file));
+                    if (ok) e.mtime = mtime;
+                    dirty = true;
+                } else {
+                    ok = true;
+                }
+            } catch (IOException ex) {
+                ok = false;
+            }
+            if (!ok) {
+                files.remove(me.getKey());
+                dirty = true;
+                removed++;
+                LOGGER.warn("Install manifest: {} is missing or changed, will be re-downloaded", me.getKey());
+            }
+        }
+        save();
+        LOGGER.info("Install manifest verified: {} entries, {} removed", files.size(), removed);
+        return removed;
+    }
+
+    private String key(Path file) {
+        Path abs = file.toAbsolutePath().normalize();
+        Path base = gameDir.toAbsolutePath().normalize();
+        Path rel = abs.startsWith(base) ? base.relativize(abs) : abs;
+        return rel.toString().replace('\\', '/');
+    }
+
+    private static class Entry {
+        long size;
+        String sha1;
+        long mtime;
+    }
+
+    private static class Data {
+        ConcurrentHashMap<String, Entry> files;
+    }
+}
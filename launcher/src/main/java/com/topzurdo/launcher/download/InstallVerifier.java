@@ -0,0 +1,187 @@
+package com.topzurdo.launcher.download;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.topzurdo.launcher.util.HashUtils;
+
+/**
+ * Parallel full-content check of installed files against their expected size and SHA-1.
+ *
+ * <p>Files are spread over a fork-join pool (one SHA-1 is inherently sequential, so parallelism is
+ * across files). Large files are hashed through read-only memory-mapped regions of
+ * {@value #REGION_BYTES} bytes, unmapped right after use so Windows lets the file be replaced by a
+ * repair; small ones are read with one channel read into a per-thread buffer.</p>
+ */
+final class InstallVerifier {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstallVerifier.class);
+
+    private static final long REGION_BYTES = 32L * 1024 * 1024;
+    /** Below this size a plain read beats setting up a mapping. */
+    private static final long MAP_THRESHOLD = 1024 * 1024;
+    private static final int LEAF_FILES = 16;
+
+    private static final ThreadLocal<ByteBuffer> READ_BUFFER =
+        ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect((int) MAP_THRESHOLD));
+
+    private static final Method INVOKE_CLEANER;
+    private static final Object UNSAFE;
+
+    static {
+        Method m = null;
+        Object u = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field f = unsafeClass.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            u = f.get(null);
+            m = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // Mappings are then released by the GC
+        }
+        INVOKE_CLEANER = m;
+        UNSAFE = u;
+    }
+
+    private InstallVerifier() {}
+
+    /**
+     * Hash every file of {@code files} and return those that are missing or differ.
+     * Files without a known SHA-1 are only checked for presence and (known) size.
+     *
+     * @param bytesHashed deltas of bytes read, from any worker thread
+     */
+    static Result verify(List<ParallelDownloader.DownloadTask> files, LongConsumer bytesHashed) {
+        List<ParallelDownloader.DownloadTask> bad = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong total = new AtomicLong();
+        LongConsumer sink = delta -> {
+            total.addAndGet(delta);
+            if (bytesHashed != null) bytesHashed.accept(delta);
+        };
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+        try {
+            pool.invoke(new VerifyRange(files, 0, files.size(), bad, sink));
+        } finally {
+            pool.shutdown();
+        }
+        return new Result(files.size(), new ArrayList<>(bad), total.get(), System.nanoTime() - start);
+    }
+
+    private static final class VerifyRange extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ParallelDownloader.DownloadTask> files;
+        private final int from;
+        private final int to;
+        private final List<ParallelDownloader.DownloadTask> bad;
+        private final LongConsumer bytesHashed;
+
+        VerifyRange(List<ParallelDownloader.DownloadTask> files, int from, int to,
+                    List<ParallelDownloader.DownloadTask> bad, LongConsumer bytesHashed) {
+            this.files = files;
+            this.from = from;
+            this.to = to;
+            this.bad = bad;
+            this.bytesHashed = bytesHashed;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_FILES) {
+                for (int i = from; i < to; i++) {
+                    ParallelDownloader.DownloadTask file = files.get(i);
+                    if (!matches(file, bytesHashed)) bad.add(file);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new VerifyRange(files, from, mid, bad, bytesHashed),
+                      new VerifyRange(files, mid, to, bad, bytesHashed));
+        }
+    }
+
+    private static boolean matches(ParallelDownloader.DownloadTask file, LongConsumer bytesHashed) {
+        try (FileChannel ch = FileChannel.open(file.path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (file.size > 0 && size != file.size) return false;
+            if (file.sha1 == null || file.sha1.isEmpty()) return true;
+            MessageDigest digest = HashUtils.sha1();
+            if (size < MAP_THRESHOLD) {
+                ByteBuffer buf = READ_BUFFER.get();
+                buf.clear().limit((int) size);
+                while (buf.hasRemaining() && ch.read(buf) >= 0) { }
+                buf.flip();
+                digest.update(buf);
+            } else {
+                for (long pos = 0; pos < size; pos += REGION_BYTES) {
+                    MappedByteBuffer region = ch.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(REGION_BYTES, size - pos));
+                    try {
+                        digest.update(region);
+                    } finally {
+                        unmap(region);
+                    }
+                    bytesHashed.accept(Math.min(REGION_BYTES, size - pos));
+                }
+            }
+            if (size < MAP_THRESHOLD) bytesHashed.accept(size);
+            return HashUtils.toHex(digest.digest()).equalsIgnoreCase(file.sha1);
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException e) {
+            LOGGER.debug("Could not verify {}: {}", file.path, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Release a mapping now instead of at some later GC. The buffer must not be touched afterwards.
+     */
+    private static void unmap(MappedByteBuffer region) {
+        if (INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, region);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LOGGER.debug("Unmap failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Outcome of one verify pass.
+     */
+    static final class Result {
+        final int checked;
+        final List<ParallelDownloader.DownloadTask> mismatched;
+        final long bytesHashed;
+        final long nanos;
+
+        Result(int checked, List<ParallelDownloader.DownloadTask> mismatched, long bytesHashed, long nanos) {
+            this.checked = checked;
+            this.mismatched = mismatched;
+            this.bytesHashed = bytesHashed;
+            this.nanos = nanos;
+        }
+
+        double megabytesPerSecond() {
+            return nanos > 0 ? bytesHashed / (1024.0 * 1024.0) / (nanos / 1e9) : 0;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.topzurdo.launcher.download;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.topzurdo.launcher.TopZurdoLauncher;
+import com.topzurdo.launcher.config.LauncherConfig;
+
+/**
+ * Shared HTTP layer for all launcher downloads.
+ * One {@link HttpClient} per process: connections are kept alive and reused between requests,
+ * HTTP/2 is negotiated where the server supports it so many small fetches multiplex over a
+ * single TLS connection instead of paying a handshake each.
+ */
+public final class LauncherHttp {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LauncherHttp.class);
+
+    public static final String USER_AGENT = "TopZurdo-Launcher/" + TopZurdoLauncher.VERSION;
+
+    private static volatile HttpClient client;
+    private static volatile Duration requestTimeout;
+    private static volatile int readTimeoutSec;
+
+    /**
+     * Shared client, created on first use with timeouts from {@link LauncherConfig}.
+     */
+    public static HttpClient client() {
+        HttpClient c = client;
+        if (c == null) {
+            synchronized (LauncherHttp.class) {
+                c = client;
+                if (c == null) {
+                    LauncherConfig config = LauncherConfig.getInstance();
+                    readTimeoutSec = config.getHttpReadTimeoutSec();
+                    requestTimeout = Duration.ofSeconds(readTimeoutSec);
+                    c = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .followRedirects(HttpClient.Redirect.NORMAL)
+                        .connectTimeout(Duration.ofSeconds(config.getHttpConnectTimeoutSec()))
+                        .build();
+                    client = c;
+                    LOGGER.debug("HTTP client created (connect {}s, response and read idle {}s)",
+                        config.getHttpConnectTimeoutSec(), config.getHttpReadTimeoutSec());
+                }
+            }
+        }
+        return c;
+    }
+
+    /**
+     * GET request builder with the launcher User-Agent and request timeout applied.
+     * The request timeout only covers the wait for the response headers; bodies read through
+     * {@link #streamBody()} are bounded per read instead.
+     */
+    public static HttpRequest.Builder request(String url) {
+        client();
+        return HttpRequest.newBuilder(URI.create(url))
+            .timeout(requestTimeout)
+            .header("User-Agent", USER_AGENT)
+            .GET();
+    }
+
+    /**
+     * Send a request, translating interruption into {@link InterruptedIOException}.
+     */
+    public static <T> HttpResponse<T> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) throws IOException {
+        try {
+            return client().send(request, handler);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while requesting " + request.uri());
+        }
+    }
+
+    /**
+     * Whether a failed transfer was cancelled (the thread was interrupted) rather than failed on the
+     * network. The idle timeout of {@link #streamBody()} throws {@link SocketTimeoutException}, which is
+     * an {@link InterruptedIOException} too, but a stalled body is an ordinary failure: callers retry it.
+     */
+    public static boolean isCancellation(IOException e) {
+        return e instanceof InterruptedIOException && !(e instanceof SocketTimeoutException);
+    }
+
+    /**
+     * Body handler for streamed bodies: a read that gets no data for the read timeout
+     * ({@link LauncherConfig#getHttpReadTimeoutSec()}) fails with a {@code SocketTimeoutException}
+     * instead of blocking forever on a stalled transfer.
+     */
+    public static HttpResponse.BodyHandler<InputStream> streamBody() {
+        client();
+        int timeout = readTimeoutSec;
+        return info -> HttpResponse.BodySubscribers.mapping(HttpResponse.BodySubscribers.ofInputStream(),
+            in -> new IdleTimeoutInputStream(in, timeout));
+    }
+
+    /**
+     * GET the body as a stream. Fails for any status other than 200; the caller must close the stream.
+     */
+    public static HttpResponse<InputStream> getStream(String url) throws IOException {
+        HttpResponse<InputStream> response = send(request(url).build(), streamBody());
+        if (response.statusCode() != 200) {
+            response.body().close();
+            throw new IOException("HTTP " + response.statusCode() + " for " + url);
+        }
+        return response;
+    }
+
+    /**
+     * GET the body starting at {@code offset} (HTTP Range). Returns the raw response for
+     * 200 (server ignored the range), 206 (partial content) or 416 (nothing left to send);
+     * any other status fails. The caller must close the stream.
+     */
+    public static HttpResponse<InputStream> getRange(String url, long offset) throws IOException {
+        HttpRequest.Builder builder = request(url);
+        if (offset > 0) builder.header("Range", "bytes=" + offset + "-");
+        HttpResponse<InputStream> response = send(builder.build(), streamBody());
+        int code = response.statusCode();
+        if (code != 200 && code != 206 && code != 416) {
+            response.body().close();
+            throw new IOException("HTTP " + code + " for " + url);
+        }
+        return response;
+    }
+
+    /**
+     * GET the body as a UTF-8 string. Fails for any status other than 200.
+     */
+    public static String getString(String url) throws IOException {
+        try (InputStream in = getStream(url).body()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * GET and parse a JSON document.
+     */
+    public static JsonElement getJson(String url) throws IOException {
+        return JsonParser.parseString(getString(url));
+    }
+
+    /**
+     * Asynchronous GET + JSON parse. Many of these in flight share one HTTP/2 connection,
+     * so a batch of API lookups completes in roughly one round trip. These are small documents,
+     * so the whole exchange is bounded by the read timeout.
+     */
+    public static CompletableFuture<JsonElement> getJsonAsync(String url) {
+        return client().sendAsync(request(url).build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8))
+            .thenApply(response -> {
+                if (response.statusCode() != 200) {
+                    throw new CompletionException(new IOException("HTTP " + response.statusCode() + " for " + url));
+                }
+                return JsonParser.parseString(response.body());
+            })
+            .orTimeout(readTimeoutSec, java.util.concurrent.TimeUnit.SECONDS);
+    }
+
+    private LauncherHttp() {}
+}
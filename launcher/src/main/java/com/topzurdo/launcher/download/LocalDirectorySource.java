@@ -0,0 +1,39 @@
+package com.topzurdo.launcher.download;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Mirror on the file system (local disk or a mounted LAN share) in "host/path" layout,
+ * e.g. {@code D:\mc-mirror\resources.download.minecraft.net\ab\ab12...}.
+ * Also serves as an offline stand-in for the upstream hosts.
+ */
+public class LocalDirectorySource implements DownloadSource {
+
+    private final Path root;
+
+    public LocalDirectorySource(Path root) {
+        this.root = root;
+    }
+
+    @Override
+    public String getName() {
+        return root.toString();
+    }
+
+    @Override
+    public URI resolve(String upstreamUrl) {
+        String path = DownloadSource.mirrorPath(upstreamUrl);
+        if (path == null) return null;
+        Path file = root.resolve(path).normalize();
+        if (!file.startsWith(root.normalize()) || !Files.isRegularFile(file)) return null;
+        return file.toUri();
+    }
+
+    @Override
+    public long probeLatencyMs() {
+        long start = System.nanoTime();
+        return Files.isDirectory(root) ? (System.nanoTime() - start) / 1_000_000 : -1;
+    }
+}
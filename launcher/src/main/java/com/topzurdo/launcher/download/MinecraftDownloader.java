@@ -1,19 +1,24 @@
 package com.topzurdo.launcher.download;
 
-import java.io.BufferedReader;
-import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
+import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.function.Consumer;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
+import java.util.function.LongConsumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -23,6 +28,8 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.topzurdo.launcher.TopZurdoLauncher;
+import com.topzurdo.launcher.config.LauncherConfig;
+import com.topzurdo.launcher.util.HashUtils;
 
 /**
  * Minecraft and Fabric downloader
@@ -45,6 +52,19 @@ public class MinecraftDownloader {
         "https://meta.fabricmc.net/v2/versions/loader/%s/%s/profile/json";
     private static final String MOD_JAR_NAME = "topzurdo-mod-1.0.0.jar";
 
+    // Upstream hosts; mirrors from the config are consulted first (see DownloadSources)
+    private static final String ASSETS_BASE_URL = "https://resources.download.minecraft.net/";
+    private static final String FABRIC_MAVEN_URL = "https://maven.fabricmc.net/";
+    private static final String MAVEN_CENTRAL_URL = "https://repo1.maven.org/maven2/";
+
+    // Missing objects from which a mirror's asset bundle is tried before per-file downloads
+    private static final int BUNDLE_MIN_OBJECTS = 200;
+    /** Longer than a cancelled {@link ParallelDownloader} waits for its workers. */
+    private static final int BACKGROUND_STOP_TIMEOUT_SEC = 45;
+
+    // Attempts per file; each retry resumes the .part file where the previous one stopped
+    private static final int DOWNLOAD_ATTEMPTS = 3;
+
     // DEV MODE: Мод ищется только локально, без скачивания с GitHub
     private static final boolean DEV_MODE = true;
 
@@ -52,12 +72,39 @@ public class MinecraftDownloader {
     private final Path versionsDir;
     private final Path librariesDir;
     private final Path assetsDir;
+    private final LauncherConfig config;
+    private final InstallManifest manifest;
+    private final ContentStore contentStore;
+    private final DownloadSources sources;
+    private DownloadProgress progress = new DownloadProgress();
+    /** Assets left out of the last install, see {@link #startDeferredAssets()}. */
+    private final List<ParallelDownloader.DownloadTask> deferredAssets = new ArrayList<>();
+    private String deferredAssetIndexId;
+    private static BackgroundInstall background;
 
     public MinecraftDownloader() {
-        this.minecraftDir = TopZurdoLauncher.MINECRAFT_DIR;
+        this(TopZurdoLauncher.MINECRAFT_DIR, ContentStore.shared(), DownloadSources.shared());
+    }
+
+    /**
+     * Downloader for another game directory, content store and set of sources (tests).
+     */
+    MinecraftDownloader(Path minecraftDir, ContentStore contentStore, DownloadSources sources) {
+        this.config = LauncherConfig.getInstance();
+        this.minecraftDir = minecraftDir;
         this.versionsDir = minecraftDir.resolve("versions");
         this.librariesDir = minecraftDir.resolve("libraries");
         this.assetsDir = minecraftDir.resolve("assets");
+        this.manifest = InstallManifest.forDir(minecraftDir);
+        this.contentStore = contentStore;
+        this.sources = sources;
+    }
+
+    /**
+     * Byte-level progress model updated by every transfer (replaces the default, unobserved one).
+     */
+    public void setProgressModel(DownloadProgress progress) {
+        this.progress = progress != null ? progress : new DownloadProgress();
     }
 
     /**
@@ -68,7 +115,13 @@ public class MinecraftDownloader {
         Path jarFile = versionDir.resolve(MC_VERSION + ".jar");
         Path jsonFile = versionDir.resolve(MC_VERSION + ".json");
 
-        return Files.exists(jarFile) && Files.exists(jsonFile);
+        if (manifest.contains(jarFile) && manifest.contains(jsonFile)) {
+            return true;
+        }
+        // Installed by an older launcher build: adopt into the manifest once
+        boolean present = manifest.adopt(jarFile, 0, null) && manifest.adopt(jsonFile, 0, null);
+        if (present) manifest.save();
+        return present;
     }
 
     /**
@@ -77,6 +130,10 @@ public class MinecraftDownloader {
     public boolean isFabricInstalled() {
         Path fabricVersionDir = versionsDir.resolve(FABRIC_VERSION_ID);
         Path jsonFile = fabricVersionDir.resolve(FABRIC_VERSION_ID + ".json");
+        // Recorded only after a profile with a mainClass was written, no need to re-parse it
+        if (manifest.contains(jsonFile)) {
+            return true;
+        }
         if (!Files.exists(jsonFile)) {
             return false;
         }
@@ -89,7 +146,12 @@ public class MinecraftDownloader {
                 return false;
             }
             String mainClass = json.get("mainClass").getAsString();
-            return mainClass != null && !mainClass.isEmpty();
+            if (mainClass == null || mainClass.isEmpty()) {
+                return false;
+            }
+            manifest.record(jsonFile, null);
+            manifest.save();
+            return true;
         } catch (Exception e) {
             LOGGER.error("Error checking Fabric installation: {}", e.getMessage(), e);
             return false;
@@ -122,21 +184,6 @@ public class MinecraftDownloader {
      * Called before launch so that already-installed games get natives if they were missing.
      */
     public void ensureNatives(Consumer<String> statusCallback) {
-        Path nativesDir = minecraftDir.resolve("natives");
-        if (Files.exists(nativesDir)) {
-            try {
-                boolean hasNative = Files.list(nativesDir).anyMatch(p -> {
-                    String name = p.getFileName().toString().toLowerCase();
-                    return name.endsWith(".dll") || name.endsWith(".so") || name.endsWith(".dylib");
-                });
-                if (hasNative) {
-                    LOGGER.debug("Natives already present");
-                    return;
-                }
-            } catch (Exception e) {
-                LOGGER.warn("Could not check natives dir: {}", e.getMessage());
-            }
-        }
         Path versionJsonPath = versionsDir.resolve(MC_VERSION).resolve(MC_VERSION + ".json");
         if (!Files.exists(versionJsonPath)) {
             LOGGER.warn("Version JSON not found, cannot ensure natives");
@@ -145,6 +192,12 @@ public class MinecraftDownloader {
         try {
             JsonObject versionJson = GSON.fromJson(Files.readString(versionJsonPath), JsonObject.class);
             JsonArray libraries = versionJson.getAsJsonArray("libraries");
+            List<String> keys = new ArrayList<>();
+            for (NativeExtract ne : collectNatives(libraries)) keys.add(ne.key);
+            if (new NativesExtractor(minecraftDir.resolve("natives")).isUpToDate(keys)) {
+                LOGGER.debug("Natives already extracted");
+                return;
+            }
             extractNatives(libraries, statusCallback != null ? statusCallback : s -> {});
         } catch (Exception e) {
             LOGGER.error("Failed to ensure natives: {}", e.getMessage(), e);
@@ -191,6 +244,7 @@ public class MinecraftDownloader {
             Files.createDirectories(versionDir);
             Path jsonPath = versionDir.resolve(MC_VERSION + ".json");
             Files.writeString(jsonPath, GSON.toJson(versionJson));
+            manifest.record(jsonPath, null);
 
             // Step 3: Download client JAR
             statusCallback.accept("Загрузка клиента Minecraft (JAR файл)...");
@@ -200,32 +254,39 @@ public class MinecraftDownloader {
             JsonObject client = downloads.getAsJsonObject("client");
             String clientUrl = client.get("url").getAsString();
             long clientSize = client.get("size").getAsLong();
+            String clientSha1 = client.has("sha1") ? client.get("sha1").getAsString() : null;
 
             Path jarPath = versionDir.resolve(MC_VERSION + ".jar");
-            downloadFile(clientUrl, jarPath, clientSize, progress -> {
-                progressCallback.accept(0.15 + progress * 0.25);
+            progress.plan(DownloadProgress.Stage.CLIENT, clientSize);
+            downloadFile(clientUrl, jarPath, clientSize, clientSha1, DownloadProgress.Stage.CLIENT, p -> {
+                progressCallback.accept(0.15 + p * 0.25);
             });
+            progress.finish(DownloadProgress.Stage.CLIENT);
 
             // Step 4: Download libraries
             statusCallback.accept("Загрузка библиотек...");
             JsonArray libraries = versionJson.getAsJsonArray("libraries");
-            downloadLibraries(libraries, progress -> {
-                progressCallback.accept(0.40 + progress * 0.30);
+            downloadLibraries(libraries, p -> {
+                progressCallback.accept(0.40 + p * 0.30);
             }, statusCallback);
+            progress.finish(DownloadProgress.Stage.LIBRARIES);
 
             // Step 4b: Download and extract native libraries (LWJGL etc.) to natives/
             statusCallback.accept("Распаковка нативных библиотек...");
             extractNatives(libraries, statusCallback);
+            progress.finish(DownloadProgress.Stage.NATIVES);
 
             // Step 5: Download assets
             JsonObject assetIndex = versionJson.getAsJsonObject("assetIndex");
-            downloadAssets(assetIndex, progress -> {
-                progressCallback.accept(0.70 + progress * 0.20);
+            downloadAssets(assetIndex, p -> {
+                progressCallback.accept(0.70 + p * 0.20);
             }, statusCallback);
+            progress.finish(DownloadProgress.Stage.ASSETS);
 
             // Step 6: Install Fabric
             statusCallback.accept("Установка Fabric...");
             progressCallback.accept(0.90);
+            progress.plan(DownloadProgress.Stage.FABRIC, 0);
             downloadFabric(statusCallback);
 
             // Step 7: Download TopZurdo mod
@@ -241,6 +302,9 @@ public class MinecraftDownloader {
         } catch (Exception e) {
             LOGGER.error("Failed to download Minecraft", e);
             throw e;
+        } finally {
+            manifest.save();
+            contentStore.flush();
         }
     }
 
@@ -265,16 +329,20 @@ public class MinecraftDownloader {
             }
 
             Path libPath = resolveLibraryPath(library);
-            if (libPath != null && !Files.exists(libPath)) {
+            if (libPath != null && !isPresent(libPath, getLibrarySize(library), getLibrarySha1(library))) {
                 downloads.add(new LibraryDownload(
                     getLibraryDownloadUrl(library),
                     libPath,
-                    getLibrarySize(library)
+                    getLibrarySize(library),
+                    getLibrarySha1(library)
                 ));
             }
         }
 
         LOGGER.info("Need to download {} libraries", downloads.size());
+        long plannedBytes = 0;
+        for (LibraryDownload d : downloads) plannedBytes += Math.max(0, d.size);
+        progress.plan(DownloadProgress.Stage.LIBRARIES, plannedBytes);
         if (downloads.size() > 0 && statusCallback != null) {
             statusCallback.accept(String.format("Загрузка библиотек (0/%d)...", downloads.size()));
         }
@@ -288,7 +356,8 @@ public class MinecraftDownloader {
             }
 
             try {
-                downloadFile(download.url, download.path, download.size, p -> {
+                downloadFile(download.url, download.path, download.size, download.sha1,
+                        DownloadProgress.Stage.LIBRARIES, p -> {
                     progressCallback.accept(progress + (p / downloads.size()));
                 });
             } catch (Exception e) {
@@ -303,14 +372,54 @@ public class MinecraftDownloader {
 
     /**
      * Download native classifier JARs (e.g. natives-windows) and extract them to gameDir/natives
-     * so LWJGL can load lwjgl.dll etc.
+     * so LWJGL can load lwjgl.dll etc. Missing jars are downloaded in parallel, then all jars are
+     * extracted concurrently; unchanged entries are skipped.
      */
     private void extractNatives(JsonArray libraries, Consumer<String> statusCallback) throws Exception {
         Path nativesDir = minecraftDir.resolve("natives");
-        Files.createDirectories(nativesDir);
-        String osName = getOsName();
+        List<NativeExtract> toExtract = collectNatives(libraries);
+
+        List<ParallelDownloader.DownloadTask> missing = new ArrayList<>();
+        for (NativeExtract ne : toExtract) {
+            if (!isPresent(ne.jarPath, ne.size, ne.sha1)) {
+                missing.add(new ParallelDownloader.DownloadTask(ne.url, ne.jarPath, ne.size, ne.sha1));
+            }
+        }
+        if (!missing.isEmpty()) {
+            if (statusCallback != null) {
+                statusCallback.accept(String.format("Нативные библиотеки: загрузка (%d)...", missing.size()));
+            }
+            long plannedBytes = 0;
+            for (ParallelDownloader.DownloadTask t : missing) plannedBytes += Math.max(0, t.size);
+            progress.plan(DownloadProgress.Stage.NATIVES, plannedBytes);
+            ParallelDownloader engine = new ParallelDownloader(config.getDownloadThreads(), config.getMaxConnectionsPerHost());
+            List<ParallelDownloader.Failure> failures = engine.downloadAll(missing,
+                (task, bytesRead) -> streamFile(task.url, task.path, task.size, task.sha1,
+                    DownloadProgress.Stage.NATIVES, bytesRead), null, null);
+            if (!failures.isEmpty()) {
+                throw new IOException("Failed to download " + failures.size() + " native libraries: "
+                    + failures.get(0).error.getMessage());
+            }
+        }
+
+        if (statusCallback != null && !toExtract.isEmpty()) {
+            statusCallback.accept(String.format("Нативные библиотеки (%d)...", toExtract.size()));
+        }
+        java.util.Map<String, Path> jars = new java.util.LinkedHashMap<>();
+        for (NativeExtract ne : toExtract) jars.put(ne.key, ne.jarPath);
+        new NativesExtractor(nativesDir).extractAll(jars);
 
-        List<NativeExtract> toExtract = new ArrayList<>();
+        if (statusCallback != null && !toExtract.isEmpty()) {
+            statusCallback.accept("Нативные библиотеки распакованы");
+        }
+    }
+
+    /**
+     * Native classifier jars for the current OS listed in the version JSON.
+     */
+    private List<NativeExtract> collectNatives(JsonArray libraries) {
+        String osName = getOsName();
+        List<NativeExtract> out = new ArrayList<>();
         for (JsonElement elem : libraries) {
             JsonObject library = elem.getAsJsonObject();
             if (!library.has("natives")) continue;
@@ -324,58 +433,26 @@ public class MinecraftDownloader {
             JsonObject classifierEntry = classifiers.getAsJsonObject(classifierKey);
             String path = classifierEntry.get("path").getAsString();
             String url = classifierEntry.get("url").getAsString();
-            Path jarPath = librariesDir.resolve(path);
-            toExtract.add(new NativeExtract(url, jarPath, classifierEntry.has("size") ? classifierEntry.get("size").getAsLong() : 0));
-        }
-
-        for (int i = 0; i < toExtract.size(); i++) {
-            NativeExtract ne = toExtract.get(i);
-            if (statusCallback != null) {
-                statusCallback.accept(String.format("Нативные библиотеки (%d/%d)...", i + 1, toExtract.size()));
-            }
-            if (!Files.exists(ne.jarPath)) {
-                Files.createDirectories(ne.jarPath.getParent());
-                downloadFile(ne.url, ne.jarPath, ne.size, p -> {});
-            }
-            extractZipTo(ne.jarPath, nativesDir);
-        }
-        if (statusCallback != null && !toExtract.isEmpty()) {
-            statusCallback.accept("Нативные библиотеки распакованы");
-        }
-    }
-
-    private void extractZipTo(Path zipPath, Path destDir) throws Exception {
-        try (ZipInputStream zis = new ZipInputStream(Files.newInputStream(zipPath))) {
-            ZipEntry entry;
-            while ((entry = zis.getNextEntry()) != null) {
-                if (entry.isDirectory()) continue;
-                if (entry.getName().startsWith("META-INF/")) continue;
-                Path out = destDir.resolve(entry.getName()).normalize();
-                Path destAbs = destDir.toAbsolutePath().normalize();
-                if (!out.toAbsolutePath().normalize().startsWith(destAbs)) continue; // security: no zip slip
-                Files.createDirectories(out.getParent());
-                try (FileOutputStream fos = new FileOutputStream(out.toFile())) {
-                    byte[] buf = new byte[8192];
-                    int len;
-                    while ((len = zis.read(buf)) > 0) {
-                        fos.write(buf, 0, len);
-                    }
-                }
-                zis.closeEntry();
-            }
+            out.add(new NativeExtract(path, url, librariesDir.resolve(path),
+                classifierEntry.has("size") ? classifierEntry.get("size").getAsLong() : 0,
+                classifierEntry.has("sha1") ? classifierEntry.get("sha1").getAsString() : null));
         }
-        LOGGER.info("Extracted natives from {} to {}", zipPath, destDir);
+        return out;
     }
 
     private static class NativeExtract {
+        final String key;
         final String url;
         final Path jarPath;
         final long size;
+        final String sha1;
 
-        NativeExtract(String url, Path jarPath, long size) {
+        NativeExtract(String key, String url, Path jarPath, long size, String sha1) {
+            this.key = key;
             this.url = url;
             this.jarPath = jarPath;
             this.size = size;
+            this.sha1 = sha1;
         }
     }
 
@@ -395,134 +472,259 @@ public class MinecraftDownloader {
         // Download asset index
         JsonObject indexJson = downloadJson(assetUrl);
         Files.writeString(indexPath, GSON.toJson(indexJson));
+        manifest.record(indexPath, null);
 
-        // Download objects
+        // Download objects: launch-critical ones now, sounds and music after the game is playable
         JsonObject objects = indexJson.getAsJsonObject("objects");
-        List<JsonObject> assetList = new ArrayList<>();
+        List<ParallelDownloader.DownloadTask> tasks = new ArrayList<>();
+        List<ParallelDownloader.DownloadTask> deferred = new ArrayList<>();
+        collectMissingAssets(objects, tasks, deferred);
+
+        // Many missing critical objects: one sequential transfer of a mirror's bundle instead of many small
+        // files. Only critical objects are taken from it here (unpacking stops once they are all in);
+        // the deferred ones come from the bundle in the background install, see startBackground
+        boolean planned = false;
+        if (tasks.size() >= BUNDLE_MIN_OBJECTS && sources.hasMirrors()) {
+            long criticalBytes = 0;
+            for (ParallelDownloader.DownloadTask t : tasks) criticalBytes += Math.max(0, t.size);
+            progress.plan(DownloadProgress.Stage.ASSETS, criticalBytes);
+            planned = true;
+            Set<String> fromBundle = installAssetBundle(assetId, tasks, criticalBytes, DownloadProgress.Stage.ASSETS,
+                progressCallback, statusCallback);
+            tasks.removeIf(t -> fromBundle.contains(t.sha1));
+        }
 
-        for (var entry : objects.entrySet()) {
-            assetList.add(entry.getValue().getAsJsonObject());
+        synchronized (this) {
+            deferredAssets.clear();
+            deferredAssets.addAll(deferred);
+            deferredAssetIndexId = assetId;
         }
 
-        LOGGER.info("Downloading {} assets", assetList.size());
         if (statusCallback != null) {
-            statusCallback.accept(String.format("Загрузка ресурсов (0/%d файлов)...", assetList.size()));
+            statusCallback.accept(String.format("Загрузка ресурсов (0/%d файлов)...", tasks.size()));
         }
 
-        Path objectsDir = assetsDir.resolve("objects");
-        Files.createDirectories(objectsDir);
+        int totalToDownload = tasks.size();
+        if (!planned) {
+            long plannedBytes = 0;
+            for (ParallelDownloader.DownloadTask t : tasks) plannedBytes += Math.max(0, t.size);
+            progress.plan(DownloadProgress.Stage.ASSETS, plannedBytes);
+        }
+        LOGGER.info("{} of {} assets missing, downloading {} now with {} workers", totalToDownload + deferred.size(),
+            objects.size(), totalToDownload, config.getDownloadThreads());
+
+        ParallelDownloader engine = new ParallelDownloader(config.getDownloadThreads(), config.getMaxConnectionsPerHost());
+        List<ParallelDownloader.Failure> failures = engine.downloadAll(tasks,
+            (task, bytesRead) -> streamFile(task.url, task.path, task.size, task.sha1,
+                DownloadProgress.Stage.ASSETS, bytesRead),
+            progressCallback,
+            done -> {
+                if (statusCallback != null && done % 50 == 0) {
+                    statusCallback.accept(String.format("Загрузка ресурсов (%d/%d файлов)...", done, totalToDownload));
+                }
+            });
+        progressCallback.accept(1.0);
 
-        int downloadedCount = 0;
-        int totalToDownload = 0;
-        for (JsonObject asset : assetList) {
-            String hash = asset.get("hash").getAsString();
-            String prefix = hash.substring(0, 2);
-            Path assetPath = objectsDir.resolve(prefix).resolve(hash);
-            if (!Files.exists(assetPath)) {
-                totalToDownload++;
+        manifest.save();
+
+        int downloadedCount = totalToDownload - failures.size();
+        if (!failures.isEmpty()) {
+            LOGGER.warn("Failed to download {} assets", failures.size());
+        }
+        if (statusCallback != null) {
+            statusCallback.accept(String.format("Загрузка ресурсов завершена (%d файлов)", downloadedCount));
+        }
+    }
+
+    /**
+     * Unpack the missing objects from the mirror's asset bundle (see {@link AssetBundle}).
+     * Any failure only means the remaining objects are downloaded one by one.
+     *
+     * @return hashes installed from the bundle
+     */
+    private Set<String> installAssetBundle(String assetId, List<ParallelDownloader.DownloadTask> missing,
+                                           long missingBytes, DownloadProgress.Stage stage,
+                                           Consumer<Double> progressCallback, Consumer<String> statusCallback) {
+        String url = AssetBundle.url(ASSETS_BASE_URL, assetId);
+        Map<String, Long> wanted = new HashMap<>();
+        for (ParallelDownloader.DownloadTask t : missing) wanted.put(t.sha1, t.size);
+        Set<String> installed = new HashSet<>();
+        long start = System.nanoTime();
+        long[] bytes = { 0 };
+        try (DownloadSources.Response response = sources.openFromMirrors(url)) {
+            LOGGER.info("Installing {} assets from bundle {}", wanted.size(), url);
+            installed.addAll(AssetBundle.unpack(response.body, wanted, assetsDir.resolve("objects"),
+                (file, sha1) -> {
+                    manifest.record(file, sha1);
+                    contentStore.put(sha1, file);
+                },
+                delta -> {
+                    bytes[0] += delta;
+                    progress.add(stage, delta);
+                    if (progressCallback != null && missingBytes > 0) progressCallback.accept(Math.min(1.0, (double) bytes[0] / missingBytes));
+                },
+                count -> {
+                    if (statusCallback != null && count % 100 == 0) {
+                        statusCallback.accept(String.format("Распаковка ресурсов (%d/%d файлов)...", count, wanted.size()));
+                    }
+                }));
+        } catch (IOException e) {
+            if (LauncherHttp.isCancellation(e)) {
+                Thread.currentThread().interrupt();
+            } else {
+                LOGGER.info("Asset bundle not used ({}), downloading files individually", e.getMessage());
             }
         }
+        if (!installed.isEmpty()) {
+            double seconds = (System.nanoTime() - start) / 1e9;
+            LOGGER.info("Asset bundle: {} objects, {} MB in {} s", installed.size(), bytes[0] / (1024 * 1024),
+                String.format("%.1f", seconds));
+            manifest.save();
+        }
+        return installed;
+    }
 
-        for (int i = 0; i < assetList.size(); i++) {
-            JsonObject asset = assetList.get(i);
+    /**
+     * Sort the objects of an asset index that are not installed yet: each hash once (several index
+     * entries may share one object, and workers must never race on a file), deferred ones apart.
+     */
+    private void collectMissingAssets(JsonObject objects, List<ParallelDownloader.DownloadTask> critical,
+                                      List<ParallelDownloader.DownloadTask> deferred) throws IOException {
+        Path objectsDir = assetsDir.resolve("objects");
+        Files.createDirectories(objectsDir);
+        java.util.Set<String> queued = new java.util.HashSet<>();
+        for (var entry : objects.entrySet()) {
+            JsonObject asset = entry.getValue().getAsJsonObject();
             String hash = asset.get("hash").getAsString();
+            if (!queued.add(hash)) continue;
             long size = asset.get("size").getAsLong();
-
             String prefix = hash.substring(0, 2);
             Path assetPath = objectsDir.resolve(prefix).resolve(hash);
-
-            if (!Files.exists(assetPath)) {
-                String assetFileUrl = "https://resources.download.minecraft.net/" + prefix + "/" + hash;
-
-                try {
-                    downloadFile(assetFileUrl, assetPath, size, p -> {});
-                    downloadedCount++;
-                    if (statusCallback != null && downloadedCount % 50 == 0) {
-                        statusCallback.accept(String.format("Загрузка ресурсов (%d/%d файлов)...", downloadedCount, totalToDownload));
-                    }
-                } catch (Exception e) {
-                    LOGGER.warn("Failed to download asset {}: {}", hash, e.getMessage());
-                }
-            }
-
-            if (i % 100 == 0) {
-                double progress = (double) i / assetList.size();
-                progressCallback.accept(progress);
+            if (!isPresent(assetPath, size, hash)) {
+                String assetFileUrl = ASSETS_BASE_URL + prefix + "/" + hash;
+                ParallelDownloader.DownloadTask task = new ParallelDownloader.DownloadTask(assetFileUrl, assetPath, size, hash);
+                (isDeferredAsset(entry.getKey()) ? deferred : critical).add(task);
             }
         }
-
-        if (statusCallback != null) {
-            statusCallback.accept(String.format("Загрузка ресурсов завершена (%d файлов)", downloadedCount));
-        }
     }
 
     /**
-     * Install TopZurdo mod
+     * Objects the game starts and plays without: sound effects, music and the bundled resource packs.
+     * Language files, sounds.json, icons and pack metadata stay on the critical path.
      */
-    public void installTopZurdoMod() throws Exception {
-        Path modsDir = TopZurdoLauncher.MODS_DIR;
-        Files.createDirectories(modsDir);
-
-        Path modJar = modsDir.resolve(MOD_JAR_NAME);
+    static boolean isDeferredAsset(String name) {
+        return name.startsWith("minecraft/sounds/")
+            || name.startsWith("minecraft/music/")
+            || name.startsWith("minecraft/resourcepacks/");
+    }
 
-        // Remove existing mod
-        if (Files.exists(modJar)) {
-            Files.delete(modJar);
-            LOGGER.info("Removed existing mod file");
+    /**
+     * Start streaming the assets deferred by the last install in the background.
+     * At most one background install runs per process; a running one is returned as is.
+     *
+     * @return the background install, or null when nothing is deferred
+     */
+    public BackgroundInstall startDeferredAssets() {
+        List<ParallelDownloader.DownloadTask> tasks;
+        String assetId;
+        synchronized (this) {
+            tasks = new ArrayList<>(deferredAssets);
+            assetId = deferredAssetIndexId;
+            deferredAssets.clear();
         }
+        return startBackground(tasks, assetId);
+    }
 
-        // Find mod in launcher JAR resources
-        Path modSource = findModInLauncher();
-        if (modSource != null && Files.exists(modSource)) {
-            Files.copy(modSource, modJar, StandardCopyOption.REPLACE_EXISTING);
-            LOGGER.info("TopZurdo mod installed from launcher JAR: {}", modJar);
-            return;
+    /**
+     * Re-queue deferred assets still missing from an earlier install (launcher closed before the
+     * background install finished). Reads the asset index from disk; no network unless files are missing.
+     *
+     * @return the background install, or null when everything is present
+     */
+    public BackgroundInstall resumeDeferredAssets() {
+        BackgroundInstall running = getBackgroundInstall();
+        if (running != null && !running.isDone()) return running;
+        try {
+            Path versionJsonPath = versionsDir.resolve(MC_VERSION).resolve(MC_VERSION + ".json");
+            if (!Files.exists(versionJsonPath)) return null;
+            JsonObject versionJson = GSON.fromJson(Files.readString(versionJsonPath), JsonObject.class);
+            String assetId = versionJson.getAsJsonObject("assetIndex").get("id").getAsString();
+            Path indexPath = assetsDir.resolve("indexes").resolve(assetId + ".json");
+            if (!Files.exists(indexPath)) return null;
+            JsonObject objects = GSON.fromJson(Files.readString(indexPath), JsonObject.class).getAsJsonObject("objects");
+            List<ParallelDownloader.DownloadTask> critical = new ArrayList<>();
+            List<ParallelDownloader.DownloadTask> deferred = new ArrayList<>();
+            // Missing critical objects are left to a regular install, which must not race with this one
+            collectMissingAssets(objects, critical, deferred);
+            return startBackground(deferred, assetId);
+        } catch (Exception e) {
+            LOGGER.warn("Could not resume deferred assets: {}", e.getMessage());
+            return null;
         }
+    }
 
-        // DEV MODE: Look for mod in project directory. When running via "gradlew :launcher:run",
-        // user.dir is often the launcher subdirectory, so try both user.dir and its parent (repo root).
-        if (DEV_MODE) {
-            Path cwd = Path.of(System.getProperty("user.dir"));
-            Path[] possibleRoots = { cwd, cwd.getParent() };
-            String[] jarNames = { "topzurdo-1.0.0.jar", MOD_JAR_NAME };
-            for (Path projectRoot : possibleRoots) {
-                if (projectRoot == null) continue;
-                Path modLibs = projectRoot.resolve("mod").resolve("build").resolve("libs");
-                for (String jarName : jarNames) {
-                    Path candidate = modLibs.resolve(jarName);
-                    if (Files.exists(candidate)) {
-                        Files.copy(candidate, modJar, StandardCopyOption.REPLACE_EXISTING);
-                        LOGGER.info("TopZurdo mod installed from project: {}", modJar);
-                        return;
-                    }
-                }
-            }
+    /**
+     * Background install of this process, or null if none was started.
+     */
+    public static BackgroundInstall getBackgroundInstall() {
+        synchronized (MinecraftDownloader.class) {
+            return background;
         }
-
-        throw new RuntimeException(
-            "TopZurdo mod JAR not found. Build the mod first: run .\\gradlew.bat :mod:build from project root, then start the launcher again.");
     }
 
     /**
-     * Find mod JAR in launcher resources
+     * Cancel a running background install and wait until none of its transfers is in flight.
      */
-    private Path findModInLauncher() {
+    private static void stopBackground(Consumer<String> statusCallback) throws IOException {
+        BackgroundInstall running = getBackgroundInstall();
+        if (running == null || running.isDone()) return;
+        statusCallback.accept("Остановка фоновой загрузки...");
+        running.cancel();
         try {
-            // Try to extract from launcher JAR resources
-            String resourcePath = "/mods/" + MOD_JAR_NAME;
-            InputStream is = getClass().getResourceAsStream(resourcePath);
+            running.whenDone().get(BACKGROUND_STOP_TIMEOUT_SEC, java.util.concurrent.TimeUnit.SECONDS);
+        } catch (java.util.concurrent.ExecutionException e) {
+            // Failed on its own: nothing is running any more
+        } catch (java.util.concurrent.TimeoutException e) {
+            throw new IOException("Background install did not stop in " + BACKGROUND_STOP_TIMEOUT_SEC + " s");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new java.io.InterruptedIOException("Interrupted while stopping the background install");
+        }
+    }
 
-            if (is != null) {
-                // Create temporary file
-                Path tempFile = Files.createTempFile("topzurdo-mod-", ".jar");
-                Files.copy(is, tempFile, StandardCopyOption.REPLACE_EXISTING);
-                is.close();
-                return tempFile;
-            }
-        } catch (Exception e) {
-            LOGGER.debug("Mod not found in launcher resources: {}", e.getMessage());
+    /**
+     * @param assetId asset index the tasks belong to; with a mirror and enough objects they are first
+     *                taken from its bundle (see {@link AssetBundle}), the rest per file
+     */
+    private BackgroundInstall startBackground(List<ParallelDownloader.DownloadTask> tasks, String assetId) {
+        synchronized (MinecraftDownloader.class) {
+            if (background != null && !background.isDone()) return background;
+            if (tasks.isEmpty()) return null;
+            long bytes = 0;
+            for (ParallelDownloader.DownloadTask t : tasks) bytes += Math.max(0, t.size);
+            progress.plan(DownloadProgress.Stage.BACKGROUND, bytes);
+            long plannedBytes = bytes;
+            BackgroundInstall.Bulk bulk = assetId != null && tasks.size() >= BUNDLE_MIN_OBJECTS && sources.hasMirrors()
+                ? pending -> installAssetBundle(assetId, pending, plannedBytes, DownloadProgress.Stage.BACKGROUND, null, null)
+                : null;
+            background = new BackgroundInstall(tasks, bulk,
+                (task, bytesRead) -> streamFile(task.url, task.path, task.size, task.sha1,
+                    DownloadProgress.Stage.BACKGROUND, bytesRead),
+                () -> {
+                    manifest.save();
+                    contentStore.flush();
+                });
+            background.start();
+            return background;
         }
-        return null;
+    }
+
+    /**
+     * Install TopZurdo mod. Skipped when the deployed jar already matches the source (see {@link ModDeployer}).
+     */
+    public void installTopZurdoMod() throws Exception {
+        Path modJar = TopZurdoLauncher.MODS_DIR.resolve(MOD_JAR_NAME);
+        new ModDeployer(modJar, DEV_MODE, manifest, TopZurdoLauncher.CONFIG_DIR.resolve("cache")).deploy();
     }
 
     private void downloadFabric(Consumer<String> statusCallback) throws Exception {
@@ -587,14 +789,17 @@ public class MinecraftDownloader {
         // Save Fabric version JSON
         Path fabricJsonPath = fabricDir.resolve(FABRIC_VERSION_ID + ".json");
         Files.writeString(fabricJsonPath, GSON.toJson(versionInfo));
+        manifest.record(fabricJsonPath, null);
         LOGGER.info("Saved Fabric version JSON to: {}", fabricJsonPath);
 
-        // Copy vanilla JAR as Fabric JAR
+        // Fabric JAR is the vanilla JAR byte for byte: share it (hard link or clone) instead of a copy.
+        // Updates always write a new file and move it over, so a link is never modified in place.
         Path vanillaJar = versionsDir.resolve(MC_VERSION).resolve(MC_VERSION + ".jar");
         Path fabricJar = fabricDir.resolve(FABRIC_VERSION_ID + ".jar");
         if (Files.exists(vanillaJar) && !Files.exists(fabricJar)) {
-            Files.copy(vanillaJar, fabricJar, StandardCopyOption.REPLACE_EXISTING);
-            LOGGER.info("Copied vanilla JAR as Fabric JAR");
+            ContentStore.Placement placement = ContentStore.linkOrCopy(vanillaJar, fabricJar);
+            manifest.record(fabricJar, null);
+            LOGGER.info("Fabric JAR placed from vanilla JAR ({})", placement);
         }
 
         // Download Fabric libraries
@@ -608,6 +813,182 @@ public class MinecraftDownloader {
         LOGGER.info("Fabric installation completed successfully");
     }
 
+    /**
+     * Whether a file is installed: manifest lookup first, a single stat only for files
+     * the manifest does not know yet (installs made before it existed).
+     */
+    private boolean isPresent(Path file, long expectedSize, String sha1) {
+        return manifest.contains(file, sha1) || manifest.adopt(file, expectedSize, sha1);
+    }
+
+    /**
+     * Re-check every file recorded in the install manifest against the disk.
+     * Missing or changed files are dropped from the manifest and re-downloaded by the next install run.
+     *
+     * @return number of files that need re-downloading
+     */
+    public int verifyInstallation() {
+        return manifest.verify();
+    }
+
+    /**
+     * Repair: hash every file the version and asset JSONs list (client and Fabric jars, libraries,
+     * natives, asset objects) regardless of the manifest, and re-download only those that are
+     * missing or differ, through the normal verified pipeline.
+     *
+     * @param progressCallback 0.0–1.0 (hashing up to 0.7, re-downloads the rest)
+     */
+    public RepairReport repairInstallation(Consumer<Double> progressCallback, Consumer<String> statusCallback)
+            throws Exception {
+        Path versionJsonPath = versionsDir.resolve(MC_VERSION).resolve(MC_VERSION + ".json");
+        if (!Files.exists(versionJsonPath)) {
+            throw new IOException("Minecraft " + MC_VERSION + " is not installed");
+        }
+        JsonObject versionJson = GSON.fromJson(Files.readString(versionJsonPath), JsonObject.class);
+        // The background install writes the same asset files: stop it first, it is resumed afterwards
+        stopBackground(statusCallback);
+        List<ParallelDownloader.DownloadTask> files = collectInstalledFiles(versionJson);
+        long totalBytes = 0;
+        for (ParallelDownloader.DownloadTask t : files) totalBytes += Math.max(0, t.size);
+
+        statusCallback.accept(String.format("Проверка файлов (%d)...", files.size()));
+        long[] hashed = { 0 };
+        long planned = totalBytes;
+        InstallVerifier.Result result = InstallVerifier.verify(files, delta -> {
+            synchronized (hashed) {
+                hashed[0] += delta;
+                if (planned > 0) progressCallback.accept(0.7 * Math.min(1.0, (double) hashed[0] / planned));
+            }
+        });
+        LOGGER.info("Repair: hashed {} files, {} MB in {} ms ({} MB/s), {} mismatched",
+            result.checked, result.bytesHashed / (1024 * 1024), result.nanos / 1_000_000,
+            String.format("%.0f", result.megabytesPerSecond()), result.mismatched.size());
+        statusCallback.accept(String.format("Проверено %d файлов (%.0f МБ/с), повреждено: %d",
+            result.checked, result.megabytesPerSecond(), result.mismatched.size()));
+
+        List<ParallelDownloader.Failure> failures = List.of();
+        if (!result.mismatched.isEmpty()) {
+            for (ParallelDownloader.DownloadTask t : result.mismatched) {
+                LOGGER.warn("Repair: {} is missing or corrupt", minecraftDir.relativize(t.path));
+                manifest.remove(t.path);
+                // A bad file may be a hard link to the shared store object: never hand it out again
+                contentStore.invalidate(t.sha1);
+            }
+            long repairBytes = 0;
+            for (ParallelDownloader.DownloadTask t : result.mismatched) repairBytes += Math.max(0, t.size);
+            progress.plan(DownloadProgress.Stage.REPAIR, repairBytes);
+            statusCallback.accept(String.format("Восстановление файлов (%d)...", result.mismatched.size()));
+            ParallelDownloader engine = new ParallelDownloader(config.getDownloadThreads(), config.getMaxConnectionsPerHost());
+            failures = engine.downloadAll(result.mismatched,
+                (task, bytesRead) -> streamFile(task.url, task.path, task.size, task.sha1,
+                    DownloadProgress.Stage.REPAIR, bytesRead),
+                p -> progressCallback.accept(0.7 + 0.3 * p), null);
+            progress.finish(DownloadProgress.Stage.REPAIR);
+
+            Set<Path> repaired = new HashSet<>();
+            for (ParallelDownloader.DownloadTask t : result.mismatched) repaired.add(t.path);
+            for (NativeExtract ne : collectNatives(versionJson.getAsJsonArray("libraries"))) {
+                if (repaired.contains(ne.jarPath)) {
+                    extractNatives(versionJson.getAsJsonArray("libraries"), statusCallback);
+                    break;
+                }
+            }
+        }
+        manifest.save();
+        contentStore.flush();
+        progressCallback.accept(1.0);
+
+        RepairReport report = new RepairReport(result.checked, result.bytesHashed, result.nanos,
+            result.mismatched.size(), result.mismatched.size() - failures.size());
+        statusCallback.accept(failures.isEmpty()
+            ? String.format("Проверка завершена: восстановлено %d из %d файлов", report.repaired, report.checked)
+            : String.format("Не удалось восстановить %d файлов", failures.size()));
+        return report;
+    }
+
+    /**
+     * Every file an install of this version consists of, with its upstream URL, size and SHA-1
+     * (when the JSON has one). Each path once; deferred assets only if already on disk.
+     */
+    private List<ParallelDownloader.DownloadTask> collectInstalledFiles(JsonObject versionJson) throws IOException {
+        Map<Path, ParallelDownloader.DownloadTask> files = new java.util.LinkedHashMap<>();
+
+        JsonObject client = versionJson.getAsJsonObject("downloads").getAsJsonObject("client");
+        String clientUrl = client.get("url").getAsString();
+        long clientSize = client.get("size").getAsLong();
+        String clientSha1 = client.has("sha1") ? client.get("sha1").getAsString() : null;
+        Path clientJar = versionsDir.resolve(MC_VERSION).resolve(MC_VERSION + ".jar");
+        files.put(clientJar, new ParallelDownloader.DownloadTask(clientUrl, clientJar, clientSize, clientSha1));
+        // The Fabric version jar is the vanilla client under another name
+        Path fabricJar = versionsDir.resolve(FABRIC_VERSION_ID).resolve(FABRIC_VERSION_ID + ".jar");
+        if (Files.exists(fabricJar)) {
+            files.put(fabricJar, new ParallelDownloader.DownloadTask(clientUrl, fabricJar, clientSize, clientSha1));
+        }
+
+        List<JsonArray> libraryLists = new ArrayList<>();
+        libraryLists.add(versionJson.getAsJsonArray("libraries"));
+        Path fabricJson = versionsDir.resolve(FABRIC_VERSION_ID).resolve(FABRIC_VERSION_ID + ".json");
+        if (Files.exists(fabricJson)) {
+            JsonObject fabric = GSON.fromJson(Files.readString(fabricJson), JsonObject.class);
+            if (fabric.has("libraries")) libraryLists.add(fabric.getAsJsonArray("libraries"));
+        }
+        for (JsonArray libraries : libraryLists) {
+            for (JsonElement elem : libraries) {
+                JsonObject library = elem.getAsJsonObject();
+                if (library.has("natives") && !library.getAsJsonObject("natives").has(getOsName())) continue;
+                Path libPath = resolveLibraryPath(library);
+                String url = getLibraryDownloadUrl(library);
+                if (libPath == null || url == null) continue;
+                files.putIfAbsent(libPath, new ParallelDownloader.DownloadTask(url, libPath,
+                    getLibrarySize(library), getLibrarySha1(library)));
+            }
+        }
+        for (NativeExtract ne : collectNatives(versionJson.getAsJsonArray("libraries"))) {
+            files.putIfAbsent(ne.jarPath, new ParallelDownloader.DownloadTask(ne.url, ne.jarPath, ne.size, ne.sha1));
+        }
+
+        String assetId = versionJson.getAsJsonObject("assetIndex").get("id").getAsString();
+        Path indexPath = assetsDir.resolve("indexes").resolve(assetId + ".json");
+        if (Files.exists(indexPath)) {
+            JsonObject objects = GSON.fromJson(Files.readString(indexPath), JsonObject.class).getAsJsonObject("objects");
+            Path objectsDir = assetsDir.resolve("objects");
+            for (var entry : objects.entrySet()) {
+                JsonObject asset = entry.getValue().getAsJsonObject();
+                String hash = asset.get("hash").getAsString();
+                Path assetPath = objectsDir.resolve(hash.substring(0, 2)).resolve(hash);
+                // Sounds and music not downloaded yet are not broken, just pending: the background install brings them
+                if (isDeferredAsset(entry.getKey()) && !Files.exists(assetPath)) continue;
+                files.putIfAbsent(assetPath, new ParallelDownloader.DownloadTask(
+                    ASSETS_BASE_URL + hash.substring(0, 2) + "/" + hash, assetPath, asset.get("size").getAsLong(), hash));
+            }
+        }
+        return new ArrayList<>(files.values());
+    }
+
+    /**
+     * Outcome of {@link #repairInstallation}.
+     */
+    public static final class RepairReport {
+        public final int checked;
+        public final long bytesHashed;
+        public final long nanos;
+        public final int mismatched;
+        public final int repaired;
+
+        RepairReport(int checked, long bytesHashed, long nanos, int mismatched, int repaired) {
+            this.checked = checked;
+            this.bytesHashed = bytesHashed;
+            this.nanos = nanos;
+            this.mismatched = mismatched;
+            this.repaired = repaired;
+        }
+
+        /** Hashing throughput in MB/s. */
+        public double getMegabytesPerSecond() {
+            return nanos > 0 ? bytesHashed / (1024.0 * 1024.0) / (nanos / 1e9) : 0;
+        }
+    }
+
     /**
      * Get OS name for native libraries
      */
@@ -681,6 +1062,7 @@ public class MinecraftDownloader {
     public List<Path> getClasspathLibraries(Path gameDir) throws Exception {
         Path libDir = gameDir.resolve("libraries");
         Path versDir = gameDir.resolve("versions");
+        InstallManifest installed = InstallManifest.forDir(gameDir);
         List<Path> out = new ArrayList<>();
         java.util.Set<Path> seen = new java.util.HashSet<>();
 
@@ -693,7 +1075,7 @@ public class MinecraftDownloader {
                 JsonObject lib = e.getAsJsonObject();
                 if (!libraryMatchesRules(lib)) continue;
                 Path p = resolveLibraryPath(lib, libDir);
-                if (p != null && Files.exists(p) && seen.add(p)) out.add(p);
+                if (p != null && (installed.contains(p) || Files.exists(p)) && seen.add(p)) out.add(p);
             }
         }
 
@@ -706,7 +1088,7 @@ public class MinecraftDownloader {
                 for (JsonElement e : libs) {
                     JsonObject lib = e.getAsJsonObject();
                     Path p = resolveLibraryPath(lib, libDir);
-                    if (p != null && Files.exists(p) && seen.add(p)) out.add(p);
+                    if (p != null && (installed.contains(p) || Files.exists(p)) && seen.add(p)) out.add(p);
                 }
             }
         }
@@ -778,9 +1160,9 @@ public class MinecraftDownloader {
      */
     private String getMavenBaseUrl(String mavenName) {
         if (mavenName.startsWith("net.fabricmc:") || mavenName.startsWith("net.fabricmc.")) {
-            return "https://maven.fabricmc.net/";
+            return FABRIC_MAVEN_URL;
         }
-        return "https://repo1.maven.org/maven2/";
+        return MAVEN_CENTRAL_URL;
     }
 
     /**
@@ -798,45 +1180,159 @@ public class MinecraftDownloader {
     }
 
     /**
-     * Download file with progress callback
+     * Get library SHA-1 (downloads.artifact.sha1 for Mojang libraries, top-level "sha1" in newer Fabric meta)
      */
-    private void downloadFile(String url, Path targetPath, long expectedSize, Consumer<Double> progressCallback) throws Exception {
-        LOGGER.info("Downloading: {} -> {}", url, targetPath);
+    private String getLibrarySha1(JsonObject library) {
+        JsonObject downloads = library.getAsJsonObject("downloads");
+        if (downloads != null) {
+            JsonObject artifact = downloads.getAsJsonObject("artifact");
+            if (artifact != null && artifact.has("sha1")) {
+                return artifact.get("sha1").getAsString();
+            }
+        }
+        return library.has("sha1") ? library.get("sha1").getAsString() : null;
+    }
 
-        Files.createDirectories(targetPath.getParent());
+    /**
+     * Download file with progress callback
+     */
+    private void downloadFile(String url, Path targetPath, long expectedSize, String expectedSha1,
+                              DownloadProgress.Stage stage, Consumer<Double> progressCallback) throws Exception {
+        long[] totalRead = { 0 };
+        streamFile(url, targetPath, expectedSize, expectedSha1, stage, delta -> {
+            totalRead[0] += delta;
+            if (progressCallback != null && expectedSize > 0) {
+                progressCallback.accept(Math.min(1.0, (double) totalRead[0] / expectedSize));
+            }
+        });
+    }
 
-        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
-        connection.setRequestProperty("User-Agent", "Zurdo-Launcher/1.0");
-        connection.connect();
+    /**
+     * Download file reporting every written chunk as a byte delta (also counted under {@code stage}
+     * in the progress model).
+     * Data goes to "&lt;name&gt;.part" and is hashed while streaming; only a file whose size and SHA-1
+     * match is atomically moved into place. An interrupted transfer leaves the .part file behind and
+     * the next attempt resumes it with an HTTP Range request.
+     */
+    void streamFile(String url, Path targetPath, long expectedSize, String expectedSha1,
+                            DownloadProgress.Stage stage, LongConsumer bytesRead) throws Exception {
+        LOGGER.debug("Downloading: {} -> {}", url, targetPath);
 
-        int responseCode = connection.getResponseCode();
-        if (responseCode != 200) {
-            throw new RuntimeException("HTTP " + responseCode + " for " + url);
+        Files.createDirectories(targetPath.getParent());
+        Path partPath = targetPath.resolveSibling(targetPath.getFileName() + ".part");
+        DownloadProgress model = progress;
+        LongConsumer sink = bytesRead != null
+            ? delta -> { bytesRead.accept(delta); model.add(stage, delta); }
+            : delta -> model.add(stage, delta);
+
+        // Another instance on this machine may already have the exact same file
+        if (contentStore.materialize(expectedSha1, targetPath)) {
+            manifest.record(targetPath, expectedSha1);
+            sink.accept(Files.size(targetPath));
+            return;
         }
 
-        long fileSize = connection.getContentLengthLong();
-        if (expectedSize > 0 && fileSize != expectedSize) {
-            LOGGER.warn("File size mismatch: expected {}, got {}", expectedSize, fileSize);
+        IOException lastError = null;
+        for (int attempt = 1; attempt <= DOWNLOAD_ATTEMPTS; attempt++) {
+            long[] reported = { 0 };
+            try {
+                String sha1 = fetchToPart(url, partPath, expectedSize, expectedSha1, delta -> {
+                    reported[0] += delta;
+                    sink.accept(delta);
+                });
+                moveIntoPlace(partPath, targetPath);
+                manifest.record(targetPath, sha1);
+                contentStore.put(sha1, targetPath);
+                LOGGER.debug("Downloaded: {} ({} bytes)", targetPath, Files.size(targetPath));
+                return;
+            } catch (IOException e) {
+                if (LauncherHttp.isCancellation(e)) throw e;
+                lastError = e;
+                // Keep aggregate progress honest: the retry reports the resumed prefix again
+                sink.accept(-reported[0]);
+                LOGGER.warn("Download attempt {}/{} failed for {}: {}", attempt, DOWNLOAD_ATTEMPTS, url, e.getMessage());
+            }
         }
+        throw lastError;
+    }
 
-        try (InputStream is = connection.getInputStream();
-             FileOutputStream fos = new FileOutputStream(targetPath.toFile())) {
-            byte[] buffer = new byte[8192];
-            long totalRead = 0;
-            int read;
-
-            while ((read = is.read(buffer)) != -1) {
-                fos.write(buffer, 0, read);
-                totalRead += read;
+    /**
+     * Fetch (or resume) {@code url} into {@code partPath} and verify it.
+     * Corrupt data is deleted so the next attempt starts from scratch.
+     *
+     * @return SHA-1 of the complete file
+     */
+    private String fetchToPart(String url, Path partPath, long expectedSize, String expectedSha1,
+                             LongConsumer bytesRead) throws IOException {
+        MessageDigest digest = HashUtils.sha1();
+        long offset = 0;
+        if (Files.exists(partPath)) {
+            offset = Files.size(partPath);
+            if (expectedSize > 0 && offset > expectedSize) {
+                Files.delete(partPath);
+                offset = 0;
+            } else if (offset > 0) {
+                HashUtils.update(digest, partPath);
+                bytesRead.accept(offset);
+                LOGGER.info("Resuming {} from byte {}", partPath.getFileName(), offset);
+            }
+        }
 
-                if (progressCallback != null && fileSize > 0) {
-                    double progress = (double) totalRead / fileSize;
-                    progressCallback.accept(progress);
+        boolean complete = expectedSize > 0 && offset == expectedSize;
+        if (!complete) {
+            DownloadSources.Response response = sources.openRange(url, offset);
+            int code = response.statusCode;
+            try (InputStream is = response.body) {
+                if (code == 416) {
+                    // Server has nothing past our offset: the part file is already whole
+                    complete = true;
+                } else {
+                    if (code == 200 && offset > 0) {
+                        // Range ignored: the body is the whole file, start over
+                        bytesRead.accept(-offset);
+                        digest.reset();
+                        offset = 0;
+                    }
+                    long fileSize = response.contentLength;
+                    if (expectedSize > 0 && fileSize >= 0 && offset + fileSize != expectedSize) {
+                        LOGGER.warn("File size mismatch: expected {}, got {}", expectedSize, offset + fileSize);
+                    }
+                    OpenOption[] mode = offset > 0
+                        ? new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.APPEND }
+                        : new OpenOption[] { StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                                             StandardOpenOption.WRITE };
+                    try (OutputStream out = Files.newOutputStream(partPath, mode)) {
+                        byte[] buffer = new byte[8192];
+                        int read;
+                        while ((read = is.read(buffer)) != -1) {
+                            out.write(buffer, 0, read);
+                            digest.update(buffer, 0, read);
+                            bytesRead.accept(read);
+                        }
+                    }
                 }
             }
         }
 
-        LOGGER.info("Downloaded: {} ({} bytes)", targetPath, Files.size(targetPath));
+        long actualSize = Files.size(partPath);
+        if (expectedSize > 0 && actualSize != expectedSize) {
+            if (actualSize > expectedSize) Files.deleteIfExists(partPath);
+            throw new IOException("Size mismatch for " + url + ": expected " + expectedSize + ", got " + actualSize);
+        }
+        String actualSha1 = HashUtils.toHex(digest.digest());
+        if (expectedSha1 != null && !expectedSha1.isEmpty() && !actualSha1.equalsIgnoreCase(expectedSha1)) {
+            Files.deleteIfExists(partPath);
+            throw new IOException("SHA-1 mismatch for " + url + ": expected " + expectedSha1 + ", got " + actualSha1);
+        }
+        return actualSha1;
+    }
+
+    private static void moveIntoPlace(Path partPath, Path targetPath) throws IOException {
+        try {
+            Files.move(partPath, targetPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(partPath, targetPath, StandardCopyOption.REPLACE_EXISTING);
+        }
     }
 
     /**
@@ -854,27 +1350,10 @@ public class MinecraftDownloader {
     }
 
     /**
-     * Download JSON from URL
+     * Download JSON from URL (mirrors first, then upstream)
      */
     private JsonObject downloadJson(String url) throws Exception {
-        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
-        connection.setRequestProperty("User-Agent", "Zurdo-Launcher/1.0");
-        connection.connect();
-
-        int responseCode = connection.getResponseCode();
-        if (responseCode != 200) {
-            throw new RuntimeException("HTTP " + responseCode + " for " + url);
-        }
-
-        try (InputStream is = connection.getInputStream();
-             BufferedReader reader = new BufferedReader(new InputStreamReader(is))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = reader.readLine()) != null) {
-                content.append(line);
-            }
-            return GSON.fromJson(content.toString(), JsonObject.class);
-        }
+        return sources.getJson(url).getAsJsonObject();
     }
 
     /**
@@ -884,11 +1363,13 @@ public class MinecraftDownloader {
         final String url;
         final Path path;
         final long size;
+        final String sha1;
 
-        LibraryDownload(String url, Path path, long size) {
+        LibraryDownload(String url, Path path, long size, String sha1) {
             this.url = url;
             this.path = path;
             this.size = size;
+            this.sha1 = sha1;
         }
     }
 }
@@ -0,0 +1,206 @@
+package com.topzurdo.launcher.download;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.jar.JarEntry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.topzurdo.launcher.util.HashUtils;
+
+/**
+ * Hash-aware deployment of the TopZurdo mod jar into the mods folder.
+ *
+ * <p>The source (the jar bundled in the launcher resources, or in dev mode {@code mod/build/libs})
+ * is identified by its size and mtime (CRC for a bundled entry) without reading it; its SHA-1 is
+ * cached with that identity in ~/.topzurdo/cache/mod-deploy.json. The deployed jar is checked against
+ * the install manifest with one stat. So an unchanged mod costs a stat of each side, and a changed
+ * one is streamed once (hashed while copying) to a temp file and moved over the old jar, which is
+ * never deleted first.</p>
+ */
+final class ModDeployer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModDeployer.class);
+    private static final Gson GSON = new Gson();
+
+    /** Jar names produced by the mod build, in order of preference. */
+    private static final String[] DEV_JAR_NAMES = { "topzurdo-1.0.0.jar", "topzurdo-mod-1.0.0.jar" };
+
+    private final Path modJar;
+    private final String resourcePath;
+    private final boolean devMode;
+    private final InstallManifest manifest;
+    private final Path cacheFile;
+
+    ModDeployer(Path modJar, boolean devMode, InstallManifest manifest, Path cacheDir) {
+        this.modJar = modJar;
+        this.resourcePath = "/mods/" + modJar.getFileName();
+        this.devMode = devMode;
+        this.manifest = manifest;
+        this.cacheFile = cacheDir.resolve("mod-deploy.json");
+    }
+
+    /**
+     * Make the mods folder hold the current mod jar.
+     *
+     * @return true if the jar was (re)written, false if it was already up to date
+     */
+    boolean deploy() throws IOException {
+        Source source = locate();
+        if (source == null) {
+            throw new RuntimeException(
+                "TopZurdo mod JAR not found. Build the mod first: run .\\gradlew.bat :mod:build from project root, then start the launcher again.");
+        }
+
+        Cache cache = loadCache();
+        String sha1 = source.key.equals(cache.sourceKey) ? cache.sha1 : null;
+        if (sha1 != null && manifest.isCurrent(modJar, sha1)) {
+            LOGGER.debug("TopZurdo mod up to date ({})", source.description);
+            return false;
+        }
+        if (sha1 != null && Files.exists(modJar) && sha1.equalsIgnoreCase(HashUtils.sha1Hex(modJar))) {
+            // Same bytes, just not recorded yet (first run with the manifest, or the mtime was touched)
+            manifest.record(modJar, sha1);
+            manifest.save();
+            return false;
+        }
+
+        Files.createDirectories(modJar.getParent());
+        Path part = modJar.resolveSibling(modJar.getFileName() + ".part");
+        MessageDigest digest = HashUtils.sha1();
+        try (InputStream in = source.open(); OutputStream out = Files.newOutputStream(part)) {
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                out.write(buf, 0, n);
+                digest.update(buf, 0, n);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        sha1 = HashUtils.toHex(digest.digest());
+        try {
+            Files.move(part, modJar, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, modJar, StandardCopyOption.REPLACE_EXISTING);
+        }
+        manifest.record(modJar, sha1);
+        manifest.save();
+        cache.sourceKey = source.key;
+        cache.sha1 = sha1;
+        saveCache(cache);
+        LOGGER.info("TopZurdo mod installed from {}: {}", source.description, modJar);
+        return true;
+    }
+
+    /**
+     * The launcher's bundled jar, else (dev mode) a built jar in the project. Nothing is read here.
+     */
+    private Source locate() {
+        URL resource = ModDeployer.class.getResource(resourcePath);
+        if (resource != null) {
+            try {
+                URLConnection conn = resource.openConnection();
+                if (conn instanceof JarURLConnection) {
+                    JarEntry entry = ((JarURLConnection) conn).getJarEntry();
+                    return new Source("launcher JAR",
+                        "res|" + resourcePath + '|' + entry.getSize() + '|' + entry.getCrc() + '|' + entry.getTime(),
+                        resource);
+                }
+                if ("file".equals(resource.getProtocol())) {
+                    return fileSource("launcher resources", Path.of(resource.toURI()));
+                }
+            } catch (IOException | URISyntaxException | RuntimeException e) {
+                LOGGER.debug("Mod not usable from launcher resources: {}", e.getMessage());
+            }
+        }
+
+        // DEV MODE: look for the mod in the project. When running via "gradlew :launcher:run",
+        // user.dir is often the launcher subdirectory, so try both user.dir and its parent (repo root).
+        if (devMode) {
+            Path cwd = Path.of(System.getProperty("user.dir"));
+            Path[] possibleRoots = { cwd, cwd.getParent() };
+            for (Path projectRoot : possibleRoots) {
+                if (projectRoot == null) continue;
+                Path modLibs = projectRoot.resolve("mod").resolve("build").resolve("libs");
+                for (String jarName : DEV_JAR_NAMES) {
+                    Source s = fileSource("project", modLibs.resolve(jarName));
+                    if (s != null) return s;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static Source fileSource(String description, Path file) {
+        try {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            String key = "file|" + file.toAbsolutePath() + '|' + attrs.size() + '|' + attrs.lastModifiedTime().toMillis();
+            return new Source(description, key, file.toUri().toURL());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Cache loadCache() {
+        try {
+            if (Files.exists(cacheFile)) {
+                Cache c = GSON.fromJson(Files.readString(cacheFile), Cache.class);
+                if (c != null) return c;
+            }
+        } catch (IOException | JsonSyntaxException e) {
+            LOGGER.debug("Mod deploy cache unreadable: {}", e.getMessage());
+        }
+        return new Cache();
+    }
+
+    private void saveCache(Cache cache) {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Files.writeString(cacheFile, GSON.toJson(cache), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            LOGGER.debug("Could not save mod deploy cache: {}", e.getMessage());
+        }
+    }
+
+    private static final class Source {
+        final String description;
+        final String key;
+        final URL url;
+
+        Source(String description, String key, URL url) {
+            this.description = description;
+            this.key = key;
+            this.url = url;
+        }
+
+        InputStream open() throws IOException {
+            URLConnection conn = url.openConnection();
+            // A cached JarFile would keep serving the old entry after the launcher jar is replaced
+            conn.setUseCaches(false);
+            return conn.getInputStream();
+        }
+    }
+
+    /** Identity and SHA-1 of the last deployed source; only the current build matters. */
+    private static final class Cache {
+        String sourceKey;
+        String sha1;
+    }
+}
@@ -0,0 +1,197 @@
+package com.topzurdo.launcher.download;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+
+/**
+ * Extracts native classifier jars (LWJGL .dll/.so/.dylib) into the natives dir.
+ *
+ * <p>Jars are opened with {@link ZipFile} (random access, no full inflate pass) and processed
+ * concurrently. An entry is skipped when the file on disk already has the same size and CRC-32.
+ * What was extracted is recorded in natives/.extracted.json, so once a set of jars is fully
+ * extracted {@link #isUpToDate(List)} answers from that record without touching the jars.</p>
+ */
+public class NativesExtractor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NativesExtractor.class);
+    private static final Gson GSON = new Gson();
+    private static final String RECORD_FILE = ".extracted.json";
+
+    private final Path nativesDir;
+    private final Path recordFile;
+
+    public NativesExtractor(Path nativesDir) {
+        this.nativesDir = nativesDir;
+        this.recordFile = nativesDir.resolve(RECORD_FILE);
+    }
+
+    /**
+     * True when the record lists exactly these jars (by library-relative key) as fully extracted.
+     * Reads only the small record file.
+     */
+    public boolean isUpToDate(List<String> jarKeys) {
+        Record record = readRecord();
+        return record != null && record.jars.keySet().equals(Set.copyOf(jarKeys));
+    }
+
+    /**
+     * Extract all jars concurrently. {@code jars} maps a stable key (library path) to the jar file.
+     *
+     * @return number of entries actually written
+     */
+    public int extractAll(Map<String, Path> jars) throws IOException {
+        Files.createDirectories(nativesDir);
+        Record previous = readRecord();
+        Record record = new Record();
+        Set<String> claimed = ConcurrentHashMap.newKeySet();
+        AtomicInteger written = new AtomicInteger();
+
+        int threads = Math.max(1, Math.min(jars.size(), Runtime.getRuntime().availableProcessors()));
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "Natives-Extract");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            List<Future<JarRecord>> futures = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            for (Map.Entry<String, Path> e : jars.entrySet()) {
+                JarRecord known = previous != null ? previous.jars.get(e.getKey()) : null;
+                keys.add(e.getKey());
+                futures.add(pool.submit(() -> extractJar(e.getValue(), known, claimed, written)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    record.jars.put(keys.get(i), futures.get(i).get());
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new java.io.InterruptedIOException("Natives extraction interrupted");
+        } finally {
+            pool.shutdownNow();
+        }
+
+        writeRecord(record);
+        LOGGER.info("Natives: {} jars, {} entries written to {}", jars.size(), written.get(), nativesDir);
+        return written.get();
+    }
+
+    private JarRecord extractJar(Path jar, JarRecord known, Set<String> claimed, AtomicInteger written) throws IOException {
+        JarRecord out = new JarRecord();
+        Path destAbs = nativesDir.toAbsolutePath().normalize();
+        try (ZipFile zip = new ZipFile(jar.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zip.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (entry.isDirectory()) continue;
+                if (entry.getName().startsWith("META-INF/")) continue;
+                Path target = nativesDir.resolve(entry.getName()).normalize();
+                if (!target.toAbsolutePath().normalize().startsWith(destAbs)) continue; // security: no zip slip
+                if (!claimed.add(entry.getName())) continue; // same file shipped by two jars: first one wins
+
+                out.entries.put(entry.getName(), new EntryRecord(entry.getSize(), entry.getCrc()));
+                if (isSameOnDisk(target, entry, known)) continue;
+
+                Files.createDirectories(target.getParent());
+                Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+                try (InputStream in = zip.getInputStream(entry);
+                     OutputStream os = Files.newOutputStream(tmp)) {
+                    in.transferTo(os);
+                }
+                Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+                written.incrementAndGet();
+            }
+        }
+        return out;
+    }
+
+    /**
+     * Size/CRC match. Trusts the record when the disk size agrees; otherwise computes the CRC once.
+     */
+    private static boolean isSameOnDisk(Path target, ZipEntry entry, JarRecord known) throws IOException {
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(target, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return false;
+        }
+        if (entry.getSize() >= 0 && attrs.size() != entry.getSize()) return false;
+        EntryRecord rec = known != null ? known.entries.get(entry.getName()) : null;
+        if (rec != null && rec.size == attrs.size() && rec.crc == entry.getCrc()) return true;
+        if (entry.getCrc() < 0) return false;
+        CRC32 crc = new CRC32();
+        try (InputStream in = Files.newInputStream(target)) {
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) != -1) crc.update(buf, 0, n);
+        }
+        return crc.getValue() == entry.getCrc();
+    }
+
+    private Record readRecord() {
+        if (!Files.exists(recordFile)) return null;
+        try {
+            Record r = GSON.fromJson(Files.readString(recordFile), Record.class);
+            return r != null && r.jars != null ? r : null;
+        } catch (IOException | JsonSyntaxException e) {
+            LOGGER.debug("Natives record unreadable: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private void writeRecord(Record record) {
+        try {
+            Files.writeString(recordFile, GSON.toJson(record));
+        } catch (IOException e) {
+            LOGGER.warn("Could not write natives record: {}", e.getMessage());
+        }
+    }
+
+    private static class Record {
+        Map<String, JarRecord> jars = new HashMap<>();
+    }
+
+    private static class JarRecord {
+        Map<String, EntryRecord> entries = new HashMap<>();
+    }
+
+    private static class EntryRecord {
+        long size;
+        long crc;
+
+        EntryRecord(long size, long crc) {
+            this.size = size;
+            this.crc = crc;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.topzurdo.launcher.download;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bounded-concurrency download engine.
+ * Runs many small fetches (assets, libraries) in parallel with a global worker limit
+ * and a per-host connection limit, aggregating byte-level progress across all files.
+ *
+ * <p>On Java 21+ each task runs on its own virtual thread (the worker limit is enforced
+ * with a semaphore); on older runtimes, or when a thread priority other than normal is asked for
+ * (virtual threads ignore priorities), a fixed thread pool of {@code workers} threads is used.</p>
+ */
+public class ParallelDownloader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelDownloader.class);
+
+    /** Progress is pushed to the callback at most once per 0.1%. */
+    private static final int PROGRESS_STEPS = 1000;
+    /** How long a cancelled {@link #downloadAll} waits for its workers to stop. */
+    private static final int STOP_TIMEOUT_SEC = 30;
+
+    private final int workers;
+    private final int perHostLimit;
+    private final int threadPriority;
+    private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+    public ParallelDownloader(int workers, int perHostLimit) {
+        this(workers, perHostLimit, Thread.NORM_PRIORITY);
+    }
+
+    /**
+     * @param threadPriority priority of the worker threads, e.g. {@link Thread#MIN_PRIORITY} for
+     *                       downloads that must not compete with the game
+     */
+    public ParallelDownloader(int workers, int perHostLimit, int threadPriority) {
+        this.workers = Math.max(1, workers);
+        this.perHostLimit = Math.max(1, perHostLimit);
+        this.threadPriority = threadPriority;
+    }
+
+    /**
+     * Transport used for a single file. Must report every chunk written via {@code bytesRead}
+     * (as a delta) so aggregate progress stays byte-accurate.
+     */
+    @FunctionalInterface
+    public interface Fetcher {
+        void fetch(DownloadTask task, LongConsumer bytesRead) throws Exception;
+    }
+
+    /**
+     * Download all tasks, blocking until every one has finished or failed.
+     *
+     * @param progressCallback aggregate progress 0.0–1.0 by bytes (may be null)
+     * @param fileCallback number of files completed so far (may be null)
+     * @return tasks that failed; failures do not stop the remaining downloads
+     */
+    public List<Failure> downloadAll(List<DownloadTask> tasks, Fetcher fetcher,
+                                     Consumer<Double> progressCallback, IntConsumer fileCallback)
+            throws InterruptedException {
+        if (tasks.isEmpty()) return List.of();
+
+        long totalBytes = 0;
+        for (DownloadTask t : tasks) totalBytes += Math.max(0, t.size);
+        final long total = totalBytes;
+
+        AtomicLong doneBytes = new AtomicLong();
+        AtomicInteger doneFiles = new AtomicInteger();
+        AtomicInteger lastStep = new AtomicInteger(-1);
+        List<Failure> failures = Collections.synchronizedList(new ArrayList<>());
+
+        Runnable report = () -> {
+            if (progressCallback == null) return;
+            double progress = total > 0
+                ? Math.min(1.0, (double) doneBytes.get() / total)
+                : (double) doneFiles.get() / tasks.size();
+            int step = (int) (progress * PROGRESS_STEPS);
+            int prev = lastStep.get();
+            if (step > prev && lastStep.compareAndSet(prev, step)) {
+                progressCallback.accept(progress);
+            }
+        };
+
+        Semaphore workerPermits = new Semaphore(workers);
+        ExecutorService executor = newExecutor();
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks.size());
+            for (DownloadTask task : tasks) {
+                futures.add(executor.submit(() -> {
+                    AtomicLong taskBytes = new AtomicLong();
+                    Semaphore host = hostPermits.computeIfAbsent(hostOf(task.url), h -> new Semaphore(perHostLimit));
+                    try {
+                        workerPermits.acquire();
+                        try {
+                            host.acquire();
+                            try {
+                                fetcher.fetch(task, delta -> {
+                                    taskBytes.addAndGet(delta);
+                                    doneBytes.addAndGet(delta);
+                                    report.run();
+                                });
+                            } finally {
+                                host.release();
+                            }
+                        } finally {
+                            workerPermits.release();
+                        }
+                        // Size in the index is authoritative: settle any difference with what was streamed
+                        if (task.size > 0) doneBytes.addAndGet(task.size - taskBytes.get());
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        doneBytes.addAndGet(-taskBytes.get());
+                        failures.add(new Failure(task, e));
+                    } catch (Exception e) {
+                        doneBytes.addAndGet(-taskBytes.get());
+                        failures.add(new Failure(task, e));
+                        LOGGER.warn("Failed to download {}: {}", task.url, e.getMessage());
+                    } finally {
+                        int done = doneFiles.incrementAndGet();
+                        if (fileCallback != null) fileCallback.accept(done);
+                        report.run();
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                try {
+                    f.get();
+                } catch (java.util.concurrent.ExecutionException e) {
+                    LOGGER.warn("Download worker failed: {}", e.getMessage());
+                }
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            // Let transfers in flight settle, so no worker still writes a file once this returns
+            if (!executor.awaitTermination(STOP_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                LOGGER.warn("Download workers still running {} s after cancel", STOP_TIMEOUT_SEC);
+            }
+            throw e;
+        } finally {
+            executor.shutdown();
+        }
+        return failures;
+    }
+
+    private ExecutorService newExecutor() {
+        if (threadPriority == Thread.NORM_PRIORITY) {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            if (virtual != null) return virtual;
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "Download-Worker-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(threadPriority);
+            return t;
+        });
+    }
+
+    /** Executors.newVirtualThreadPerTaskExecutor() when running on Java 21+, otherwise null. */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static String hostOf(String url) {
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host : "";
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Single file to fetch.
+     */
+    public static class DownloadTask {
+        public final String url;
+        public final Path path;
+        public final long size;
+        /** Expected SHA-1 (hex), or null when unknown. */
+        public final String sha1;
+
+        public DownloadTask(String url, Path path, long size, String sha1) {
+            this.url = url;
+            this.path = path;
+            this.size = size;
+            this.sha1 = sha1;
+        }
+    }
+
+    /**
+     * Task that could not be downloaded and the reason.
+     */
+    public static class Failure {
+        public final DownloadTask task;
+        public final Exception error;
+
+        Failure(DownloadTask task, Exception error) {
+            this.task = task;
+            this.error = error;
+        }
+    }
+}
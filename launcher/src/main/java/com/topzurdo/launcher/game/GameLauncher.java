@@ -1,7 +1,9 @@
 package com.topzurdo.launcher.game;
 
+import com.topzurdo.launcher.config.JvmProfile;
 import com.topzurdo.launcher.config.LauncherConfig;
 import com.topzurdo.launcher.download.MinecraftDownloader;
+import com.topzurdo.launcher.util.ServerAddressResolver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -19,11 +21,16 @@ public class GameLauncher {
     private static final Logger LOG = LoggerFactory.getLogger(GameLauncher.class);
     /** Must match MinecraftDownloader.FABRIC_VERSION_ID so version dir and JAR are found */
     private static final String FABRIC_VERSION_ID = "1.16.5-fabric-0.15.11";
+    private static final String MC_VERSION = "1.16.5";
+    private static final String MAIN_CLASS = "net.fabricmc.loader.impl.launch.knot.KnotClient";
 
     private final LauncherConfig config;
+    private final LaunchPlanCache planCache;
+    private final JvmProfileEngine profileEngine = new JvmProfileEngine();
 
     public GameLauncher(LauncherConfig config) {
         this.config = config;
+        this.planCache = new LaunchPlanCache(config.getMinecraftDir());
     }
 
     public Process launch(String username) throws IOException {
@@ -32,27 +39,7 @@ public class GameLauncher {
         Path gameDir = config.getMinecraftDir();
         Path javaPath = findJava();
 
-        List<String> command = new ArrayList<>();
-        command.add(javaPath.toString());
-
-        // JVM arguments: память и пути
-        command.add("-Xms512M");
-        command.add("-Xmx" + config.getMaxMemoryMB() + "M");
-        String jvmArgs = config.getEffectiveJvmArgs();
-        if (jvmArgs != null && !jvmArgs.isEmpty()) {
-            for (String arg : jvmArgs.split("\\s+")) {
-                if (!arg.isEmpty()) command.add(arg);
-            }
-        }
-        command.add("-Djava.library.path=" + gameDir.resolve("natives"));
-        command.add("-Dorg.lwjgl.system.SharedLibraryExtractPath=" + gameDir.resolve("natives"));
-
-        // Classpath
-        command.add("-cp");
-        command.add(buildClasspath(gameDir));
-
-        // Main class
-        command.add("net.fabricmc.loader.impl.launch.knot.KnotClient");
+        List<String> command = resolveJvmCommand(gameDir, javaPath);
 
         // Game arguments
         command.add("--username");
@@ -67,19 +54,110 @@ public class GameLauncher {
         command.add("1.16");
         command.add("--accessToken");
         command.add("0");
+        addAutoConnectArgs(command);
 
         LOG.debug("Launch command: {}", String.join(" ", command));
 
         ProcessBuilder pb = new ProcessBuilder(command);
         pb.directory(gameDir.toFile());
+        // Output is piped to GameOutputPipeline (see GameService), not inherited
         pb.redirectErrorStream(true);
-        pb.inheritIO();
 
         return pb.start();
     }
 
+    /**
+     * Server the game joins on launch, or null: auto-connect must be on and the server one the user
+     * saved in settings (the built-in default is never joined on its own).
+     */
+    public String getAutoConnectServer() {
+        String server = config.getLastServer();
+        if (!config.isAutoConnect() || !config.isServerChosen() || server == null || server.isBlank()) return null;
+        return server;
+    }
+
+    /**
+     * --server/--port for the last server when auto-connect is on. The game client connects to the
+     * given host directly, so the SRV record is resolved here (cached, shared with status polling;
+     * GameService warms it before the launch). An explicit host:port is used as typed.
+     */
+    private void addAutoConnectArgs(List<String> command) {
+        String server = getAutoConnectServer();
+        if (server == null) return;
+        ServerAddressResolver.Target target = ServerAddressResolver.shared().resolveTarget(server);
+        LOG.info("Auto-connect to {} ({})", server, target);
+        command.add("--server");
+        command.add(target.host);
+        command.add("--port");
+        command.add(String.valueOf(target.port));
+    }
+
+    /**
+     * JVM part of the command (java, flags, classpath, main class), served from the launch plan
+     * cache when version JSONs, game dirs and settings are unchanged since the last launch.
+     */
+    private List<String> resolveJvmCommand(Path gameDir, Path javaPath) throws IOException {
+        List<String> jvm = new ArrayList<>();
+        jvm.add(javaPath.toString());
+
+        // JVM arguments: память и пути
+        jvm.addAll(resolveJvmFlags(javaPath));
+        jvm.add("-Djava.library.path=" + gameDir.resolve("natives"));
+        jvm.add("-Dorg.lwjgl.system.SharedLibraryExtractPath=" + gameDir.resolve("natives"));
+
+        Path versions = gameDir.resolve("versions");
+        String key = planCache.computeKey(
+            List.of(versions.resolve(MC_VERSION).resolve(MC_VERSION + ".json"),
+                    versions.resolve(FABRIC_VERSION_ID).resolve(FABRIC_VERSION_ID + ".json")),
+            List.of(gameDir.resolve("install-manifest.json")),
+            List.of(versions.resolve(FABRIC_VERSION_ID), gameDir.resolve("mods")),
+            jvm);
+
+        List<String> cached = planCache.get(key);
+        if (cached != null) {
+            LOG.info("Using cached launch plan");
+            return cached;
+        }
+
+        long start = System.nanoTime();
+        List<String> command = new ArrayList<>(jvm);
+        command.add("-cp");
+        command.add(buildClasspath(gameDir));
+        command.add(MAIN_CLASS);
+        planCache.put(key, command);
+        LOG.info("Launch plan rebuilt in {} ms", (System.nanoTime() - start) / 1_000_000);
+        return command;
+    }
+
+    /**
+     * Heap and tuning flags. A profile's flags come from {@link JvmProfileEngine}; args edited by hand
+     * in the config (different from the profile preset) are used verbatim.
+     */
+    private List<String> resolveJvmFlags(Path javaPath) {
+        JvmProfile profile = JvmProfile.fromId(config.getJvmProfile());
+        String jvmArgs = config.getEffectiveJvmArgs();
+        if (jvmArgs != null && !jvmArgs.isBlank() && !jvmArgs.trim().equals(profile.getJvmArgs())) {
+            List<String> flags = new ArrayList<>();
+            flags.add("-Xmx" + config.getMaxMemoryMB() + "M");
+            for (String arg : jvmArgs.split("\\s+")) {
+                if (!arg.isEmpty()) flags.add(arg);
+            }
+            LOG.info("Using custom JVM args");
+            return flags;
+        }
+        return profileEngine.resolve(profile, javaPath, config.getMaxMemoryMB()).flags;
+    }
+
     private Path findJava() {
-        // Try JAVA_HOME first
+        // Java chosen in settings (or detected on first run)
+        String configured = config.getJavaPath();
+        if (configured != null && !configured.isBlank()) {
+            Path java = Path.of(configured);
+            if (java.toFile().isFile() || java.getNameCount() == 1) return java;
+            LOG.warn("Configured Java not found: {}", configured);
+        }
+
+        // Then JAVA_HOME
         String javaHome = System.getenv("JAVA_HOME");
         if (javaHome != null) {
             Path java = Path.of(javaHome, "bin", isWindows() ? "java.exe" : "java");
@@ -0,0 +1,359 @@
+package com.topzurdo.launcher.game;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Game process output: read in raw chunks, kept in a bounded off-heap ring buffer, scanned for crash
+ * markers and written gzip-compressed to ~/.topzurdo/logs/game by a separate writer thread.
+ *
+ * <p>Output is never decoded line by line; only lines that contain a marker are turned into Strings.
+ * The reader never blocks on disk: if the writer falls behind, chunks are dropped from the file log
+ * (and counted) rather than stalling the game's stdout pipe. Each launch gets its own file, rolled
+ * over at {@value #MAX_FILE_BYTES} uncompressed bytes; only the newest {@value #MAX_LOG_FILES}
+ * files are kept.</p>
+ */
+public class GameOutputPipeline {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GameOutputPipeline.class);
+
+    private static final int RING_CAPACITY = 1 << 20;
+    private static final int READ_CHUNK = 64 * 1024;
+    private static final int WRITE_QUEUE = 256;
+    private static final int MAX_LINE_SCAN = 4096;
+    private static final int MAX_MARKER_LINE = 512;
+    private static final int MAX_MARKERS = 64;
+    private static final long MAX_FILE_BYTES = 32L * 1024 * 1024;
+    private static final int MAX_LOG_FILES = 10;
+    private static final String LOG_PREFIX = "game-";
+    private static final String LOG_SUFFIX = ".log.gz";
+    private static final byte[] EOF = new byte[0];
+
+    private static final byte[][] CRASH_MARKERS = {
+            ascii("Crash report saved"),
+            ascii("Exception"),
+            ascii("FATAL"),
+    };
+    private static final byte[] CRASH_REPORT_MARKER = CRASH_MARKERS[0];
+
+    private final Path logsDir;
+    private final Charset charset;
+    private final ByteBuffer ring = ByteBuffer.allocateDirect(RING_CAPACITY);
+    private final Deque<Marker> markers = new ArrayDeque<>();
+    private final BlockingQueue<byte[]> writeQueue = new ArrayBlockingQueue<>(WRITE_QUEUE);
+    private final byte[] line = new byte[MAX_LINE_SCAN];
+
+    private long totalBytes;
+    private long droppedBytes;
+    private int markerCount;
+    private String crashReportLine;
+    private int lineLength;
+    private long lineStart;
+
+    private Thread reader;
+    private Thread writer;
+
+    public GameOutputPipeline(Path logsDir) {
+        this(logsDir, Charset.defaultCharset());
+    }
+
+    public GameOutputPipeline(Path logsDir, Charset charset) {
+        this.logsDir = logsDir;
+        this.charset = charset;
+    }
+
+    /**
+     * Start the reader and writer threads for one game process' (merged) output stream.
+     */
+    public synchronized void start(InputStream output) {
+        if (reader != null) throw new IllegalStateException("Pipeline already started");
+        writer = new Thread(this::writeLoop, "GameOutput-Writer");
+        writer.setDaemon(true);
+        writer.start();
+        reader = new Thread(() -> readLoop(output), "GameOutput-Reader");
+        reader.setDaemon(true);
+        reader.start();
+    }
+
+    /**
+     * Wait until the output has been read to the end and flushed to disk.
+     */
+    public void await(long timeoutMs) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        Thread r, w;
+        synchronized (this) {
+            r = reader;
+            w = writer;
+        }
+        if (r != null) r.join(Math.max(1, deadline - System.currentTimeMillis()));
+        if (w != null) w.join(Math.max(1, deadline - System.currentTimeMillis()));
+    }
+
+    private void readLoop(InputStream output) {
+        byte[] chunk = new byte[READ_CHUNK];
+        try (InputStream in = output) {
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                accept(chunk, n);
+                if (!writeQueue.offer(Arrays.copyOf(chunk, n))) {
+                    synchronized (this) {
+                        droppedBytes += n;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("Game output closed: {}", e.getMessage());
+        } finally {
+            synchronized (this) {
+                scanLine();
+            }
+            try {
+                // Bounded wait: a writer that died on an I/O error no longer drains the queue
+                writeQueue.offer(EOF, 5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Append a chunk to the ring buffer and scan completed lines for markers.
+     */
+    private synchronized void accept(byte[] chunk, int n) {
+        int skip = Math.max(0, n - RING_CAPACITY);
+        int pos = (int) ((totalBytes + skip) % RING_CAPACITY);
+        int first = Math.min(n - skip, RING_CAPACITY - pos);
+        ring.put(pos, chunk, skip, first);
+        if (first < n - skip) ring.put(0, chunk, skip + first, n - skip - first);
+
+        for (int i = 0; i < n; i++) {
+            byte b = chunk[i];
+            if (b == '\n') {
+                scanLine();
+                lineStart = totalBytes + i + 1;
+            } else if (lineLength < MAX_LINE_SCAN) {
+                line[lineLength++] = b;
+            }
+        }
+        totalBytes += n;
+    }
+
+    private void scanLine() {
+        int len = lineLength;
+        lineLength = 0;
+        if (len == 0) return;
+        for (byte[] marker : CRASH_MARKERS) {
+            if (indexOf(line, len, marker) >= 0) {
+                int end = line[len - 1] == '\r' ? len - 1 : len;
+                String text = new String(line, 0, Math.min(end, MAX_MARKER_LINE), charset);
+                if (marker == CRASH_REPORT_MARKER) crashReportLine = text;
+                markerCount++;
+                markers.addLast(new Marker(lineStart, text));
+                if (markers.size() > MAX_MARKERS) markers.removeFirst();
+                return;
+            }
+        }
+    }
+
+    private void writeLoop() {
+        OutputStream out = null;
+        long fileBytes = 0;
+        int part = 0;
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        try {
+            while (true) {
+                byte[] chunk = writeQueue.take();
+                if (chunk == EOF) break;
+                if (out == null || fileBytes >= MAX_FILE_BYTES) {
+                    if (out != null) out.close();
+                    out = openLog(stamp, part++);
+                    fileBytes = 0;
+                }
+                out.write(chunk);
+                fileBytes += chunk.length;
+            }
+        } catch (IOException e) {
+            LOG.warn("Game log writing stopped: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException ignored) { }
+            }
+            writeQueue.clear();
+        }
+    }
+
+    private OutputStream openLog(String stamp, int part) throws IOException {
+        Files.createDirectories(logsDir);
+        if (part == 0) pruneOldLogs();
+        String name = LOG_PREFIX + stamp + (part > 0 ? "-" + part : "") + LOG_SUFFIX;
+        return new GZIPOutputStream(Files.newOutputStream(logsDir.resolve(name)), 64 * 1024);
+    }
+
+    private void pruneOldLogs() {
+        List<Path> logs = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(logsDir, LOG_PREFIX + "*" + LOG_SUFFIX)) {
+            ds.forEach(logs::add);
+        } catch (IOException e) {
+            return;
+        }
+        // Names sort by timestamp; leave room for the file about to be created
+        Collections.sort(logs);
+        for (int i = 0; i < logs.size() - (MAX_LOG_FILES - 1); i++) {
+            try {
+                Files.deleteIfExists(logs.get(i));
+            } catch (IOException e) {
+                LOG.debug("Could not delete old game log {}: {}", logs.get(i), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Last {@code maxLines} lines of output still held in the ring buffer.
+     */
+    public synchronized List<String> getTail(int maxLines) {
+        int size = (int) Math.min(totalBytes, RING_CAPACITY);
+        byte[] bytes = new byte[size];
+        int start = (int) ((totalBytes - size) % RING_CAPACITY);
+        int first = Math.min(size, RING_CAPACITY - start);
+        ring.get(start, bytes, 0, first);
+        if (first < size) ring.get(0, bytes, first, size - first);
+
+        Deque<String> lines = new ArrayDeque<>();
+        int end = size;
+        if (end > 0 && bytes[end - 1] == '\n') end--;
+        for (int i = end - 1; i >= 0 && lines.size() < maxLines; i--) {
+            if (bytes[i] == '\n') {
+                lines.addFirst(decodeLine(bytes, i + 1, end));
+                end = i;
+            }
+        }
+        // Before a wrap-around the first line is complete; after one it is cut, so it is dropped
+        if (end > 0 && lines.size() < maxLines && totalBytes <= RING_CAPACITY) {
+            lines.addFirst(decodeLine(bytes, 0, end));
+        }
+        return new ArrayList<>(lines);
+    }
+
+    /**
+     * Crash markers seen so far plus the output tail; cheap, can be called while the game runs.
+     */
+    public synchronized CrashSummary getCrashSummary(int tailLines) {
+        return new CrashSummary(new ArrayList<>(markers), markerCount, crashReportLine,
+                getTail(tailLines), totalBytes, droppedBytes);
+    }
+
+    private String decodeLine(byte[] bytes, int from, int to) {
+        if (to > from && bytes[to - 1] == '\r') to--;
+        return new String(bytes, from, to - from, charset);
+    }
+
+    private static int indexOf(byte[] haystack, int len, byte[] needle) {
+        outer:
+        for (int i = 0; i <= len - needle.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (haystack[i + j] != needle[j]) continue outer;
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static byte[] ascii(String s) {
+        return s.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A line that matched a crash marker; {@code offset} is its position in the whole output.
+     */
+    public static final class Marker {
+        public final long offset;
+        public final String line;
+
+        Marker(long offset, String line) {
+            this.offset = offset;
+            this.line = line;
+        }
+    }
+
+    /**
+     * Snapshot of what the pipeline knows about a (possible) crash.
+     */
+    public static final class CrashSummary {
+        private final List<Marker> markers;
+        private final int markerCount;
+        private final String crashReportLine;
+        private final List<String> tail;
+        private final long totalBytes;
+        private final long droppedBytes;
+
+        CrashSummary(List<Marker> markers, int markerCount, String crashReportLine, List<String> tail,
+                     long totalBytes, long droppedBytes) {
+            this.markers = markers;
+            this.markerCount = markerCount;
+            this.crashReportLine = crashReportLine;
+            this.tail = tail;
+            this.totalBytes = totalBytes;
+            this.droppedBytes = droppedBytes;
+        }
+
+        /** Most recent marker lines (at most {@value GameOutputPipeline#MAX_MARKERS}). */
+        public List<Marker> getMarkers() { return markers; }
+        /** All marker lines seen, including those no longer kept. */
+        public int getMarkerCount() { return markerCount; }
+        public List<String> getTail() { return tail; }
+        public long getTotalBytes() { return totalBytes; }
+        /** Bytes missing from the file log because the writer fell behind. */
+        public long getDroppedBytes() { return droppedBytes; }
+
+        public boolean hasCrashReport() { return crashReportLine != null; }
+
+        /**
+         * Path of the crash report from "Crash report saved to: #@!@# path", or null.
+         */
+        public String getCrashReportPath() {
+            if (crashReportLine == null) return null;
+            int at = crashReportLine.lastIndexOf("#@!@#");
+            String path = at >= 0 ? crashReportLine.substring(at + 5) : crashReportLine.substring(crashReportLine.indexOf(':') + 1);
+            return path.trim().isEmpty() ? null : path.trim();
+        }
+
+        /**
+         * Line worth showing the user: the crash report line, else the latest FATAL line, else the
+         * latest marker. Early "Exception" lines are usually logged and survived; what killed the game
+         * comes last.
+         */
+        public String getHeadline() {
+            if (crashReportLine != null) return crashReportLine;
+            for (int i = markers.size() - 1; i >= 0; i--) {
+                if (markers.get(i).line.contains("FATAL")) return markers.get(i).line;
+            }
+            return markers.isEmpty() ? null : markers.get(markers.size() - 1).line;
+        }
+    }
+}
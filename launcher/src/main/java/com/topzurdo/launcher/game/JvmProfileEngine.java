@@ -0,0 +1,363 @@
+package com.topzurdo.launcher.game;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.topzurdo.launcher.TopZurdoLauncher;
+import com.topzurdo.launcher.config.JvmProfile;
+import com.topzurdo.launcher.util.HashUtils;
+import com.topzurdo.launcher.util.OSUtils;
+
+/**
+ * Builds the JVM flags of a {@link JvmProfile} for this machine and the selected Java.
+ *
+ * <p>Inputs are the core count, total and free memory and the major version of the game's Java
+ * (read from {@code java -version}). The profile picks a GC strategy — Aikar's G1 flags sized to
+ * the heap, a low-pause collector (ZGC on 17+, Shenandoah where the build has it, G1 with a short
+ * pause target otherwise) or a lean G1 for weak PCs — plus optional extras: pre-touched fixed heap
+ * when free memory allows, large pages, a dynamic CDS archive on Java 19+ and a reduced
+ * {@code ActiveProcessorCount} on weak PCs.</p>
+ *
+ * <p>Every flag set is checked by running {@code java <flags> -version}: a non-zero exit or any
+ * warning rejects it and the next candidate is tried; a rejected extra is simply left out. Results
+ * are cached per Java binary (path, size, mtime) in ~/.topzurdo/cache/jvm-flags.json, so only the
+ * first launch with a new Java or profile pays for the checks.</p>
+ */
+public class JvmProfileEngine {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JvmProfileEngine.class);
+    private static final Gson GSON = new Gson();
+    private static final Pattern VERSION = Pattern.compile("version \"(\\d+)(?:\\.(\\d+))?");
+    /**
+     * A line the JVM prints about a rejected or dubious flag: "Unrecognized VM option ...",
+     * "Error: Could not create the Java Virtual Machine.", "OpenJDK 64-Bit Server VM warning: ..."
+     * or a unified-logging line such as "[0.001s][warning][pagesize] UseLargePages disabled ...".
+     * Matched at line start so a vendor or build string that merely contains "error" does not count.
+     */
+    private static final Pattern JVM_DIAGNOSTIC = Pattern.compile(
+            "^(?:(?:.* VM )?(?:warning|error|unrecognized)\\b|\\[[^\\]]*\\]\\[(?:warning|error)\\])",
+            Pattern.CASE_INSENSITIVE | Pattern.MULTILINE);
+
+    private static final long CHECK_TIMEOUT_SEC = 15;
+    private static final int MIN_HEAP_MB = 1024;
+    /** Memory left to the OS and the launcher when clamping the heap. */
+    private static final int OS_RESERVE_MB = 1536;
+    /** Free memory needed beyond the heap before it is fixed (-Xms = -Xmx) and pre-touched. */
+    private static final int PRETOUCH_HEADROOM_MB = 1024;
+    private static final int LARGE_PAGES_MIN_HEAP_MB = 6144;
+
+    private final Path cacheFile;
+    private final Path cdsDir;
+    private Cache cache;
+
+    public JvmProfileEngine() {
+        this(TopZurdoLauncher.CONFIG_DIR.resolve("cache"));
+    }
+
+    public JvmProfileEngine(Path cacheDir) {
+        this.cacheFile = cacheDir.resolve("jvm-flags.json");
+        this.cdsDir = cacheDir.resolve("cds");
+    }
+
+    /**
+     * Resolve the flags (including -Xmx/-Xms) for {@code profile} with the given Java and heap.
+     */
+    public synchronized Plan resolve(JvmProfile profile, Path java, int requestedHeapMb) {
+        Hardware hw = Hardware.detect();
+        int javaVersion = javaVersion(java);
+        int heapMb = requestedHeapMb;
+        if (hw.totalMb > 0 && heapMb > hw.totalMb - OS_RESERVE_MB) {
+            heapMb = (int) Math.max(MIN_HEAP_MB, hw.totalMb - OS_RESERVE_MB);
+            LOG.warn("Heap {} MB does not fit {} MB of RAM, using {} MB", requestedHeapMb, hw.totalMb, heapMb);
+        }
+        String xmx = "-Xmx" + heapMb + "M";
+
+        List<String> gc = null;
+        for (List<String> candidate : gcCandidates(profile, hw, javaVersion, heapMb)) {
+            if (check(java, xmx, candidate)) {
+                gc = candidate;
+                break;
+            }
+        }
+        if (gc == null) {
+            LOG.warn("No tuned flag set accepted by {}, falling back to plain G1", java);
+            gc = List.of("-XX:+UseG1GC");
+        }
+
+        List<String> flags = new ArrayList<>();
+        flags.add(xmx);
+        flags.addAll(gc);
+        for (List<String> extra : extras(profile, hw, javaVersion, heapMb)) {
+            List<String> withExtra = new ArrayList<>(gc);
+            withExtra.addAll(extra);
+            if (check(java, xmx, withExtra)) flags.addAll(extra);
+        }
+        // Pre-touch is not checked with -version (it would commit the whole heap); it only needs the RAM
+        boolean lowEnd = profile == JvmProfile.LIGHT || profile == JvmProfile.LOW_PC;
+        if (!lowEnd && hw.freeMb >= heapMb + PRETOUCH_HEADROOM_MB) {
+            flags.add(1, "-Xms" + heapMb + "M");
+            flags.add("-XX:+AlwaysPreTouch");
+        }
+
+        Plan plan = new Plan(flags, heapMb, javaVersion, hw);
+        LOG.info("JVM profile {} on {} (Java {}): {}", profile, hw, javaVersion, String.join(" ", flags));
+        return plan;
+    }
+
+    /**
+     * GC flag sets to try, best first.
+     */
+    private static List<List<String>> gcCandidates(JvmProfile profile, Hardware hw, int javaVersion, int heapMb) {
+        List<List<String>> out = new ArrayList<>();
+        switch (profile) {
+            case PVP:
+                if (javaVersion >= 17) out.add(List.of("-XX:+UseZGC"));
+                out.add(List.of("-XX:+UseShenandoahGC", "-XX:ShenandoahGCHeuristics=adaptive"));
+                out.add(List.of("-XX:+UseG1GC", "-XX:MaxGCPauseMillis=50", "-XX:+ParallelRefProcEnabled",
+                        "-XX:+DisableExplicitGC"));
+                break;
+            case LIGHT:
+            case LOW_PC:
+                out.add(List.of("-XX:+UseG1GC", "-XX:MaxGCPauseMillis=" + (profile == JvmProfile.LOW_PC ? 500 : 200),
+                        "-XX:+UnlockExperimentalVMOptions", "-XX:G1NewSizePercent=20", "-XX:G1MaxNewSizePercent=30",
+                        "-XX:+DisableExplicitGC"));
+                break;
+            default:
+                out.add(aikarG1(heapMb));
+        }
+        // Whatever the profile, plain G1 is always understood
+        out.add(List.of("-XX:+UseG1GC", "-XX:MaxGCPauseMillis=200", "-XX:+DisableExplicitGC"));
+        return out;
+    }
+
+    /**
+     * Aikar's G1 flags; the young generation and region size grow above 12 GB of heap.
+     */
+    private static List<String> aikarG1(int heapMb) {
+        boolean big = heapMb >= 12288;
+        return List.of("-XX:+UseG1GC", "-XX:+ParallelRefProcEnabled", "-XX:MaxGCPauseMillis=200",
+                "-XX:+UnlockExperimentalVMOptions", "-XX:+DisableExplicitGC",
+                "-XX:G1NewSizePercent=" + (big ? 40 : 30), "-XX:G1MaxNewSizePercent=" + (big ? 50 : 40),
+                "-XX:G1HeapRegionSize=" + (big ? "16M" : "8M"), "-XX:G1ReservePercent=" + (big ? 15 : 20),
+                "-XX:G1HeapWastePercent=5", "-XX:G1MixedGCCountTarget=4",
+                "-XX:InitiatingHeapOccupancyPercent=" + (big ? 20 : 15), "-XX:G1MixedGCLiveThresholdPercent=90",
+                "-XX:G1RSetUpdatingPauseTimePercent=5", "-XX:SurvivorRatio=32", "-XX:+PerfDisableSharedMem",
+                "-XX:MaxTenuringThreshold=1");
+    }
+
+    /**
+     * Optional flag groups, each checked on its own on top of the chosen GC.
+     */
+    private List<List<String>> extras(JvmProfile profile, Hardware hw, int javaVersion, int heapMb) {
+        List<List<String>> out = new ArrayList<>();
+        if (profile == JvmProfile.LOW_PC && hw.cores > 2) {
+            // Leave a core to the OS and the launcher on weak machines
+            out.add(List.of("-XX:ActiveProcessorCount=" + (hw.cores - 1)));
+        }
+        if (profile == JvmProfile.HEAVY && heapMb >= LARGE_PAGES_MIN_HEAP_MB) {
+            out.add(List.of("-XX:+UseLargePages"));
+        }
+        if (javaVersion >= 19) {
+            Path archive = cdsDir.resolve("minecraft-java" + javaVersion + ".jsa");
+            out.add(List.of("-XX:+AutoCreateSharedArchive", "-XX:SharedArchiveFile=" + archive));
+        }
+        return out;
+    }
+
+    /**
+     * Major version of a Java binary (8, 11, 17, ...), or -1 if it cannot be run.
+     */
+    public synchronized int javaVersion(Path java) {
+        String key = "version|" + javaKey(java);
+        Cache c = cache();
+        Integer cached = c.javaVersions.get(key);
+        if (cached != null) return cached;
+        int version = -1;
+        Result r = run(java, List.of("-version"));
+        if (r != null) {
+            Matcher m = VERSION.matcher(r.output);
+            if (m.find()) {
+                int major = Integer.parseInt(m.group(1));
+                version = major == 1 && m.group(2) != null ? Integer.parseInt(m.group(2)) : major;
+            }
+        }
+        if (version > 0) {
+            c.javaVersions.put(key, version);
+            saveCache();
+        }
+        return version;
+    }
+
+    private boolean check(Path java, String xmx, List<String> flags) {
+        List<String> args = new ArrayList<>();
+        args.add(xmx);
+        args.addAll(flags);
+        String key = "flags|" + javaKey(java) + "|" + String.join(" ", args);
+        Cache c = cache();
+        Boolean cached = c.flagSets.get(key);
+        if (cached != null) return cached;
+
+        args.add("-version");
+        Result r = run(java, args);
+        boolean ok = r != null && r.exitCode == 0 && !hasWarning(r.output);
+        if (!ok) {
+            LOG.info("Rejected by {}: {}{}", java, String.join(" ", flags),
+                    r != null ? " (" + firstLine(r.output) + ")" : "");
+        }
+        if (r != null) {
+            c.flagSets.put(key, ok);
+            saveCache();
+        }
+        return ok;
+    }
+
+    private static boolean hasWarning(String output) {
+        return JVM_DIAGNOSTIC.matcher(output).find();
+    }
+
+    private static String firstLine(String output) {
+        int nl = output.indexOf('\n');
+        return (nl >= 0 ? output.substring(0, nl) : output).trim();
+    }
+
+    /**
+     * Run java with the given arguments; null if it could not be started or timed out.
+     */
+    private static Result run(Path java, List<String> args) {
+        List<String> command = new ArrayList<>();
+        command.add(java.toString());
+        command.addAll(args);
+        try {
+            // Output goes to a file rather than a pipe: reading a pipe to EOF would block on a hung
+            // java before waitFor() could time it out
+            Path log = Files.createTempFile("topzurdo-jvm-check", ".txt");
+            try {
+                Process p = new ProcessBuilder(command)
+                        .redirectErrorStream(true)
+                        .redirectOutput(log.toFile())
+                        .start();
+                if (!p.waitFor(CHECK_TIMEOUT_SEC, TimeUnit.SECONDS)) {
+                    p.destroyForcibly();
+                    LOG.warn("{} -version did not finish in {} s", java, CHECK_TIMEOUT_SEC);
+                    return null;
+                }
+                return new Result(p.exitValue(), new String(Files.readAllBytes(log), StandardCharsets.UTF_8));
+            } finally {
+                Files.deleteIfExists(log);
+            }
+        } catch (IOException e) {
+            LOG.debug("Could not run {}: {}", java, e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * Identity of a Java binary for the cache: a replaced or updated JDK gets a new key.
+     */
+    private static String javaKey(Path java) {
+        StringBuilder sb = new StringBuilder(java.toAbsolutePath().toString());
+        try {
+            sb.append('|').append(Files.size(java)).append('|').append(Files.getLastModifiedTime(java).toMillis());
+        } catch (IOException e) {
+            // "java" from PATH: no file to stat, keyed by name only
+        }
+        return HashUtils.toHex(HashUtils.sha1().digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Cache cache() {
+        if (cache == null) {
+            try {
+                if (Files.exists(cacheFile)) cache = GSON.fromJson(Files.readString(cacheFile), Cache.class);
+            } catch (IOException | JsonSyntaxException e) {
+                LOG.debug("JVM flag cache unreadable: {}", e.getMessage());
+            }
+            if (cache == null) cache = new Cache();
+            if (cache.javaVersions == null) cache.javaVersions = new HashMap<>();
+            if (cache.flagSets == null) cache.flagSets = new HashMap<>();
+        }
+        return cache;
+    }
+
+    private void saveCache() {
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            Files.writeString(cacheFile, GSON.toJson(cache));
+        } catch (IOException e) {
+            LOG.debug("Could not save JVM flag cache: {}", e.getMessage());
+        }
+    }
+
+    private static final class Cache {
+        Map<String, Integer> javaVersions = new HashMap<>();
+        Map<String, Boolean> flagSets = new HashMap<>();
+    }
+
+    private static final class Result {
+        final int exitCode;
+        final String output;
+
+        Result(int exitCode, String output) {
+            this.exitCode = exitCode;
+            this.output = output;
+        }
+    }
+
+    /**
+     * What the engine knows about the machine.
+     */
+    public static final class Hardware {
+        public final int cores;
+        public final long totalMb;
+        public final long freeMb;
+
+        Hardware(int cores, long totalMb, long freeMb) {
+            this.cores = cores;
+            this.totalMb = totalMb;
+            this.freeMb = freeMb;
+        }
+
+        public static Hardware detect() {
+            return new Hardware(Runtime.getRuntime().availableProcessors(),
+                    OSUtils.getTotalMemoryMb(), OSUtils.getFreeMemoryMb());
+        }
+
+        @Override
+        public String toString() {
+            return cores + " cores, " + totalMb + " MB RAM (" + freeMb + " MB free)";
+        }
+    }
+
+    /**
+     * Resolved flags for one launch.
+     */
+    public static final class Plan {
+        public final List<String> flags;
+        public final int heapMb;
+        public final int javaVersion;
+        public final Hardware hardware;
+
+        Plan(List<String> flags, int heapMb, int javaVersion, Hardware hardware) {
+            this.flags = List.copyOf(flags);
+            this.heapMb = heapMb;
+            this.javaVersion = javaVersion;
+            this.hardware = hardware;
+        }
+    }
+}
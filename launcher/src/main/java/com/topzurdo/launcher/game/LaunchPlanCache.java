@@ -0,0 +1,148 @@
+package com.topzurdo.launcher.game;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.topzurdo.launcher.util.HashUtils;
+
+/**
+ * Cache of the resolved JVM command (java, JVM flags, classpath, main class) for a game dir.
+ * Stored in launch-plan.json next to the game files.
+ *
+ * <p>The key covers everything the plan is derived from: SHA-1 of the vanilla and Fabric
+ * version JSONs, the mtime of the install manifest, every jar (relative path, size, mtime) in the
+ * trees the classpath scans recursively (Fabric version dir, mods), plus the JVM settings. Any
+ * change produces a new key, so invalidation is automatic.</p>
+ */
+public class LaunchPlanCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(LaunchPlanCache.class);
+    private static final Gson GSON = new Gson();
+    private static final String FILE_NAME = "launch-plan.json";
+
+    private final Path gameDir;
+    private final Path planFile;
+    private Plan memo;
+
+    public LaunchPlanCache(Path gameDir) {
+        this.gameDir = gameDir;
+        this.planFile = gameDir.resolve(FILE_NAME);
+    }
+
+    /**
+     * Compute the cache key for the current state of the game dir and the given JVM settings.
+     * Costs two small file reads, a stat per watched path and a walk of the jar trees.
+     *
+     * @param jarTrees directories whose jars, at any depth, end up on the classpath
+     */
+    public String computeKey(List<Path> versionJsons, List<Path> watchedPaths, List<Path> jarTrees,
+                             List<String> settings) throws IOException {
+        MessageDigest digest = HashUtils.sha1();
+        for (Path json : versionJsons) {
+            digest.update(json.toString().getBytes(StandardCharsets.UTF_8));
+            if (Files.exists(json)) {
+                digest.update(Files.readAllBytes(json));
+            }
+        }
+        for (Path p : watchedPaths) {
+            digest.update(p.toString().getBytes(StandardCharsets.UTF_8));
+            try {
+                long mtime = Files.getLastModifiedTime(p).toMillis();
+                digest.update(Long.toString(mtime).getBytes(StandardCharsets.UTF_8));
+            } catch (NoSuchFileException e) {
+                digest.update((byte) 0);
+            }
+        }
+        for (Path tree : jarTrees) {
+            digest.update(tree.toString().getBytes(StandardCharsets.UTF_8));
+            if (!Files.isDirectory(tree)) {
+                digest.update((byte) 0);
+                continue;
+            }
+            // Same walk as the classpath scan: a jar added or removed in a subfolder changes the key
+            List<String> jars = new ArrayList<>();
+            Files.walkFileTree(tree, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (file.getFileName().toString().endsWith(".jar")) {
+                        jars.add(tree.relativize(file) + "|" + attrs.size() + "|" + attrs.lastModifiedTime().toMillis());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+            Collections.sort(jars);
+            for (String jar : jars) {
+                digest.update(jar.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+        for (String s : settings) {
+            digest.update(s.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+        return HashUtils.toHex(digest.digest());
+    }
+
+    /**
+     * Cached command for this key, or null on a miss.
+     */
+    public synchronized List<String> get(String key) {
+        if (memo == null) {
+            memo = readPlan();
+        }
+        if (memo != null && key.equals(memo.key) && memo.command != null) {
+            return new ArrayList<>(memo.command);
+        }
+        return null;
+    }
+
+    public synchronized void put(String key, List<String> command) {
+        Plan plan = new Plan();
+        plan.key = key;
+        plan.command = new ArrayList<>(command);
+        memo = plan;
+        try {
+            Files.createDirectories(gameDir);
+            Files.writeString(planFile, GSON.toJson(plan));
+        } catch (IOException e) {
+            LOG.warn("Could not save launch plan: {}", e.getMessage());
+        }
+    }
+
+    private Plan readPlan() {
+        if (!Files.exists(planFile)) return null;
+        try {
+            return GSON.fromJson(Files.readString(planFile), Plan.class);
+        } catch (IOException | JsonSyntaxException e) {
+            LOG.debug("Launch plan unreadable, rebuilding: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static class Plan {
+        String key;
+        List<String> command;
+    }
+}
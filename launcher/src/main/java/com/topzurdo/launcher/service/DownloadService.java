@@ -1,5 +1,7 @@
 package com.topzurdo.launcher.service;
 
+import com.topzurdo.launcher.download.BackgroundInstall;
+import com.topzurdo.launcher.download.DownloadProgress;
 import com.topzurdo.launcher.download.MinecraftDownloader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -7,6 +9,8 @@ import org.slf4j.LoggerFactory;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -21,7 +25,10 @@ import java.util.function.Consumer;
  *   <li>Required libraries and assets</li>
  * </ul>
  *
- * <p>Progress is reported via callbacks (0.0 to 1.0).</p>
+ * <p>Progress is reported via callbacks (0.0 to 1.0). Download workers only update
+ * {@link DownloadProgress} counters and the latest fraction/status; a sampler publishes them to the
+ * callbacks at most {@value #UI_UPDATES_PER_SECOND} times per second and only when they changed,
+ * so the UI thread sees a steady trickle instead of one update per 8 KB chunk.</p>
  * <p>Status messages are "elegantified" for premium UI experience.</p>
  *
  * <h2>Usage Example:</h2>
@@ -48,22 +55,43 @@ public class DownloadService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DownloadService.class);
 
+    /** Rate at which progress and status are pushed to the callbacks. */
+    public static final int UI_UPDATES_PER_SECOND = 10;
+
     private final MinecraftDownloader downloader;
     private final OptimizationModService optimizationService;
     private final ExecutorService executor;
+    private final ScheduledExecutorService sampler;
     private final AtomicBoolean downloadInProgress = new AtomicBoolean(false);
+    private final DownloadProgress progressModel = new DownloadProgress();
 
     private Consumer<Double> progressCallback;
     private Consumer<String> statusCallback;
 
+    // Latest values written by workers; published by the sampler
+    private volatile double progress = -1;
+    private volatile String status;
+    private volatile boolean detailedStatus;
+    private volatile DownloadProgress.Snapshot lastSnapshot;
+    private double publishedProgress = -1;
+    private String publishedStatus;
+
     public DownloadService() {
         this.downloader = new MinecraftDownloader();
+        this.downloader.setProgressModel(progressModel);
         this.optimizationService = new OptimizationModService();
         this.executor = Executors.newSingleThreadExecutor(r -> {
             Thread t = new Thread(r, "DownloadService-Worker");
             t.setDaemon(true);
             return t;
         });
+        this.sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "DownloadService-Progress");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = 1000 / UI_UPDATES_PER_SECOND;
+        sampler.scheduleAtFixedRate(this::publish, period, period, TimeUnit.MILLISECONDS);
     }
 
     /**
@@ -129,26 +157,21 @@ public class DownloadService {
         }
 
         LOGGER.info("Starting Minecraft download");
+        progressModel.reset();
         updateStatus("Подготовка к загрузке...");
         updateProgress(0.0);
 
         return CompletableFuture.supplyAsync(() -> {
             try {
-                    final double[] currentProgress = {0.0};
-                    downloader.downloadMinecraft(
-                progress -> {
+                downloader.downloadMinecraft(
                     // Reserve 90% for MC download, 10% for optimization mods
-                    currentProgress[0] = progress * 0.9;
-                    updateProgress(currentProgress[0]);
-                },
-                status -> {
-                    // Реалтайм детальный прогресс с процентом
-                    String detailedStatus = getDetailedStatus(status, currentProgress[0]);
-                    updateStatus(detailedStatus);
-                }
-            );
+                    p -> updateProgress(p * 0.9),
+                    // Реалтайм детальный прогресс: процент, скорость и ETA добавляются при публикации
+                    s -> updateStatus(s, true)
+                );
 
                 LOGGER.info("Minecraft download completed, installing optimization mods...");
+                progressModel.plan(DownloadProgress.Stage.MODS, 0);
                 updateStatus("Установка модов оптимизации...");
                 updateProgress(0.92);
 
@@ -165,7 +188,12 @@ public class DownloadService {
                 }
 
                 LOGGER.info("Download completed successfully");
-                updateStatus("Загрузка завершена");
+                // The game is playable now; sounds and music keep streaming at low priority
+                BackgroundInstall background = downloader.startDeferredAssets();
+                // A game started before they arrive has no sound until F3+T; say so rather than imply it is harmless
+                updateStatus(background != null
+                    ? "Загрузка завершена · звуки и музыка догружаются в фоне (до F3+T в игре будет тихо)"
+                    : "Загрузка завершена");
                 updateProgress(1.0);
 
                 return true;
@@ -177,10 +205,86 @@ public class DownloadService {
 
             } finally {
                 downloadInProgress.set(false);
+                // Flush now so the final status reaches the UI before the caller's completion handlers
+                publish();
             }
         }, executor);
     }
 
+    /**
+     * Latest aggregated progress (bytes, throughput, ETA, per-stage breakdown), or null before any download.
+     * Refreshed by the sampler; cheap to call from the UI thread.
+     */
+    public DownloadProgress.Snapshot getProgressSnapshot() {
+        return lastSnapshot;
+    }
+
+    /**
+     * Background full verify of the install manifest (stat every recorded file, re-hash changed ones).
+     * Runs on the download worker, so it never overlaps with an install.
+     * @return CompletableFuture with the number of files that were invalidated
+     */
+    public CompletableFuture<Integer> verifyInstallationAsync() {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            int removed = downloader.verifyInstallation();
+            LOGGER.info("Installation verify finished in {} ms, {} files invalidated",
+                (System.nanoTime() - start) / 1_000_000, removed);
+            return removed;
+        }, executor);
+    }
+
+    /**
+     * User-triggered repair: hash every installed file in parallel and re-download only the broken ones.
+     * Reports progress and status like an install and never overlaps with one; a background install
+     * of sounds and music is paused for the check and resumed after it.
+     * @return CompletableFuture with the repair report, or null if an install was already running
+     */
+    public CompletableFuture<MinecraftDownloader.RepairReport> repairInstallationAsync() {
+        if (!downloadInProgress.compareAndSet(false, true)) {
+            LOGGER.warn("Download already in progress, repair skipped");
+            return CompletableFuture.completedFuture(null);
+        }
+        progressModel.reset();
+        updateStatus("Проверка файлов...");
+        updateProgress(0.0);
+
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                MinecraftDownloader.RepairReport report = downloader.repairInstallation(this::updateProgress, this::updateStatus);
+                LOGGER.info("Repair finished: {} checked, {} broken, {} repaired, {} MB/s",
+                    report.checked, report.mismatched, report.repaired,
+                    String.format("%.0f", report.getMegabytesPerSecond()));
+                return report;
+            } catch (Exception e) {
+                LOGGER.error("Repair failed", e);
+                updateStatus("Ошибка проверки: " + e.getMessage());
+                throw new RuntimeException(e);
+            } finally {
+                // Sounds and music paused for the check (or still missing) continue in the background
+                downloader.resumeDeferredAssets();
+                downloadInProgress.set(false);
+                publish();
+            }
+        }, executor);
+    }
+
+    /**
+     * Continue a background install of sounds and music interrupted by closing the launcher.
+     * No-op while an install runs or before the game is installed.
+     */
+    public void resumeDeferredAssets() {
+        if (downloadInProgress.get() || !downloader.isMinecraftInstalled()) return;
+        downloader.resumeDeferredAssets();
+    }
+
+    /**
+     * Background install of deferred assets (sounds, music), or null if none was started.
+     */
+    public BackgroundInstall getBackgroundInstall() {
+        return MinecraftDownloader.getBackgroundInstall();
+    }
+
     /**
      * Cancel current download (if supported)
      */
@@ -234,6 +338,9 @@ public class DownloadService {
     public void shutdown() {
         LOGGER.info("Shutting down DownloadService");
         executor.shutdown();
+        sampler.shutdownNow();
+        BackgroundInstall background = MinecraftDownloader.getBackgroundInstall();
+        if (background != null) background.cancel();
         optimizationService.shutdown();
     }
 
@@ -256,14 +363,55 @@ public class DownloadService {
     }
 
     private void updateProgress(double progress) {
-        if (progressCallback != null) {
-            progressCallback.accept(progress);
-        }
+        this.progress = progress;
     }
 
     private void updateStatus(String status) {
-        if (statusCallback != null) {
-            statusCallback.accept(status);
+        updateStatus(status, false);
+    }
+
+    private void updateStatus(String status, boolean detailed) {
+        this.detailedStatus = detailed;
+        this.status = status;
+    }
+
+    /**
+     * Sampler tick: push progress/status to the callbacks if they changed since the last tick.
+     */
+    private synchronized void publish() {
+        try {
+            boolean downloading = downloadInProgress.get();
+            DownloadProgress.Snapshot snapshot = downloading ? progressModel.sample() : lastSnapshot;
+            lastSnapshot = snapshot;
+
+            double p = progress;
+            if (p >= 0 && Math.abs(p - publishedProgress) >= 0.001 && progressCallback != null) {
+                publishedProgress = p;
+                progressCallback.accept(p);
+            }
+
+            String s = status;
+            if (s != null && detailedStatus) {
+                s = getDetailedStatus(s, Math.max(0, p));
+                if (downloading) s += formatTransfer(snapshot);
+            }
+            if (s != null && !s.equals(publishedStatus) && statusCallback != null) {
+                publishedStatus = s;
+                statusCallback.accept(s);
+            }
+        } catch (RuntimeException e) {
+            // Never let one bad callback cancel the periodic task
+            LOGGER.debug("Progress publish failed: {}", e.getMessage());
         }
     }
+
+    /**
+     * " · 4.2 МБ/с · осталось 1:05" while bytes are flowing, otherwise empty.
+     */
+    private static String formatTransfer(DownloadProgress.Snapshot snapshot) {
+        if (snapshot == null || snapshot.bytesPerSecond <= 0) return "";
+        String rate = String.format(" · %.1f МБ/с", snapshot.bytesPerSecond / (1024.0 * 1024.0));
+        if (snapshot.etaSeconds < 0) return rate;
+        return rate + String.format(" · осталось %d:%02d", snapshot.etaSeconds / 60, snapshot.etaSeconds % 60);
+    }
 }
@@ -1,15 +1,19 @@
 package com.topzurdo.launcher.service;
 
+import com.topzurdo.launcher.TopZurdoLauncher;
 import com.topzurdo.launcher.config.LauncherConfig;
+import com.topzurdo.launcher.download.BackgroundInstall;
 import com.topzurdo.launcher.download.MinecraftDownloader;
 import com.topzurdo.launcher.game.GameLauncher;
+import com.topzurdo.launcher.game.GameOutputPipeline;
+import com.topzurdo.launcher.util.ServerAddressResolver;
 import javafx.application.Platform;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
+import java.nio.file.Path;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 
@@ -19,10 +23,15 @@ import java.util.function.Consumer;
 public class GameService {
 
     private static final Logger LOG = LoggerFactory.getLogger(GameService.class);
+    private static final Path GAME_LOGS_DIR = TopZurdoLauncher.CONFIG_DIR.resolve("logs").resolve("game");
+    private static final int CRASH_TAIL_LINES = 40;
+    private static final long OUTPUT_DRAIN_TIMEOUT_MS = 3000;
 
     private final LauncherConfig config;
     private final GameLauncher launcher;
     private Process gameProcess;
+    private volatile GameOutputPipeline outputPipeline;
+    private volatile GameOutputPipeline.CrashSummary lastCrash;
     private final AtomicBoolean launchInProgress = new AtomicBoolean(false);
     private Consumer<String> statusCallback;
     private Runnable onGameStarted;
@@ -69,33 +78,45 @@ public class GameService {
             try {
                 Platform.runLater(() -> statusCallback.accept("Проверка нативных библиотек..."));
                 MinecraftDownloader downloader = new MinecraftDownloader();
-                downloader.ensureNatives(s -> Platform.runLater(() -> statusCallback.accept(s)));
 
-                // DEV: перед запуском копировать свежий JAR мода из mod/build/libs в mods
-                try {
-                    downloader.installTopZurdoMod();
-                } catch (Exception e) {
-                    LOG.warn("Could not update mod from project (using existing mod if present): {}", e.getMessage());
-                }
+                // Обновление JAR мода (обычно один stat) идёт параллельно с нативными библиотеками
+                CompletableFuture<Void> modDeploy = CompletableFuture.runAsync(() -> {
+                    try {
+                        downloader.installTopZurdoMod();
+                    } catch (Exception e) {
+                        LOG.warn("Could not update mod (using existing mod if present): {}", e.getMessage());
+                    }
+                }, sideThread("ModDeploy"));
+                // SRV lookup for auto-connect too; the launcher then reads it from the resolver cache
+                String server = launcher.getAutoConnectServer();
+                CompletableFuture<Void> srvLookup = server == null ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.runAsync(() -> ServerAddressResolver.shared().resolveTarget(server), sideThread("SrvLookup"))
+                        .exceptionally(e -> null); // the launcher falls back to the address as typed
+                downloader.ensureNatives(s -> Platform.runLater(() -> statusCallback.accept(s)));
+                // Fabric reads mods/ at startup, so the jar must be in place before the process starts
+                modDeploy.join();
+                srvLookup.join();
 
                 Platform.runLater(() -> statusCallback.accept("Запуск игры..."));
                 gameProcess = launcher.launch(username);
+                warnIfSoundsPending(gameProcess, statusCallback);
 
-                // Monitor game output
-                new Thread(() -> {
-                    try (BufferedReader reader = new BufferedReader(new InputStreamReader(gameProcess.getInputStream()))) {
-                        String line;
-                        while ((line = reader.readLine()) != null) {
-                            LOG.debug("[Minecraft] {}", line);
-                        }
-                    } catch (Exception e) {
-                        LOG.warn("Error reading game output", e);
-                    }
-                }, "GameOutputReader").start();
+                lastCrash = null;
+                GameOutputPipeline pipeline = new GameOutputPipeline(GAME_LOGS_DIR);
+                pipeline.start(gameProcess.getInputStream());
+                outputPipeline = pipeline;
 
                 // Wait for game to finish
                 int exitCode = gameProcess.waitFor();
                 LOG.info("Game exited with code: {}", exitCode);
+                pipeline.await(OUTPUT_DRAIN_TIMEOUT_MS);
+                GameOutputPipeline.CrashSummary summary = pipeline.getCrashSummary(CRASH_TAIL_LINES);
+                if (exitCode != 0 || summary.hasCrashReport()) {
+                    lastCrash = summary;
+                    LOG.warn("Game crashed (exit code {}): {}", exitCode, summary.getHeadline());
+                    if (summary.getCrashReportPath() != null) LOG.warn("Crash report: {}", summary.getCrashReportPath());
+                    LOG.warn("Last game output:{}{}", System.lineSeparator(), String.join(System.lineSeparator(), summary.getTail()));
+                }
 
                 Platform.runLater(onComplete);
 
@@ -106,6 +127,46 @@ public class GameService {
         }, "GameLauncherThread").start();
     }
 
+    /** Executor running one task on its own daemon thread, for launch steps done beside the natives check. */
+    private static Executor sideThread(String name) {
+        return r -> {
+            Thread t = new Thread(r, name);
+            t.setDaemon(true);
+            t.start();
+        };
+    }
+
+    /**
+     * Sounds and music still downloading: the game drops missing sound files when it loads resources,
+     * so it stays silent until they are reloaded. Tell the player, and tell them again when F3+T helps.
+     */
+    private static void warnIfSoundsPending(Process game, Consumer<String> statusCallback) {
+        BackgroundInstall background = MinecraftDownloader.getBackgroundInstall();
+        if (background == null || background.isDone()) return;
+        LOG.info("Game started while {} of {} deferred sound files are still downloading",
+            background.getTotal() - background.getCompleted(), background.getTotal());
+        Platform.runLater(() -> statusCallback.accept("Звуки и музыка ещё загружаются — пока в игре будет тихо"));
+        background.whenDone().thenAccept(missing -> {
+            if (missing == 0 && game.isAlive()) {
+                Platform.runLater(() -> statusCallback.accept("Звуки и музыка загружены — нажмите F3+T в игре, чтобы включить их"));
+            }
+        });
+    }
+
+    /**
+     * Output of the running (or last) game: crash markers and tail, or null before the first launch.
+     */
+    public GameOutputPipeline getOutputPipeline() {
+        return outputPipeline;
+    }
+
+    /**
+     * Crash summary of the last launch if it exited abnormally, else null.
+     */
+    public GameOutputPipeline.CrashSummary getLastCrash() {
+        return lastCrash;
+    }
+
     public boolean isGameRunning() {
         return gameProcess != null && gameProcess.isAlive();
     }
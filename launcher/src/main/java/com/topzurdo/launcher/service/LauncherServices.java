@@ -1,58 +1,179 @@
 package com.topzurdo.launcher.service;
 
+import com.topzurdo.launcher.TopZurdoLauncher;
 import com.topzurdo.launcher.config.LauncherConfig;
 import com.topzurdo.launcher.ui.effects.EffectsEngine;
 import javafx.application.Platform;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 /**
  * Aggregates launcher services and notifies when each is ready.
+ *
+ * <p>Services are started as a small dependency graph on a pool of init threads: the config is
+ * loaded first, {@link DownloadService} and {@link GameService} wait for it, everything else starts
+ * right away. Each callback fires on the FX thread as soon as its own service is ready, so the UI
+ * does not wait for the slowest one. Per-service init times are logged and written to
+ * ~/.topzurdo/logs/startup.log once the whole graph has finished.</p>
  */
 public class LauncherServices {
 
-    private final LauncherConfig config;
-    private Consumer<AuthService> onAuthReady;
-    private Consumer<DownloadService> onDownloadReady;
-    private Consumer<GameService> onGameReady;
-    private Consumer<ServerStatusService> onServerStatusReady;
-    private Consumer<EffectsEngine> onEffectsReady;
+    private static final Logger LOG = LoggerFactory.getLogger(LauncherServices.class);
+    private static final Path STARTUP_REPORT = TopZurdoLauncher.CONFIG_DIR.resolve("logs").resolve("startup.log");
+    private static final int INIT_THREADS = Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors()));
 
-    public LauncherServices(LauncherConfig config) {
-        this.config = config;
+    private final long startNanos = System.nanoTime();
+    private final ExecutorService initPool;
+    private final List<Timing> timings = new ArrayList<>();
+    private final List<CompletableFuture<?>> nodes = new ArrayList<>();
+
+    private final CompletableFuture<LauncherConfig> config;
+    private final CompletableFuture<AuthService> auth;
+    private final CompletableFuture<DownloadService> download;
+    private final CompletableFuture<GameService> game;
+    private final CompletableFuture<ServerStatusService> serverStatus;
+    private final CompletableFuture<EffectsEngine> effects;
+
+    private LauncherServices() {
+        AtomicInteger threadId = new AtomicInteger();
+        this.initPool = Executors.newFixedThreadPool(INIT_THREADS, r -> {
+            Thread t = new Thread(r, "LauncherServices-Init-" + threadId.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        config = node("config", LauncherConfig::load);
+        auth = node("auth", AuthService::new);
+        serverStatus = node("serverStatus", ServerStatusService::new);
+        effects = node("effects", EffectsEngine::new);
+        download = node("download", DownloadService::new, config);
+        game = node("game", () -> new GameService(config.join()), config);
+
+        CompletableFuture.allOf(nodes.toArray(new CompletableFuture<?>[0]))
+                .whenComplete((v, err) -> {
+                    writeReport();
+                    initPool.shutdown();
+                });
     }
 
     public static LauncherServices startAsync() {
-        LauncherConfig config = LauncherConfig.load();
-        LauncherServices services = new LauncherServices(config);
-        new Thread(() -> {
-            AuthService auth = new AuthService();
-            Platform.runLater(() -> {
-                if (services.onAuthReady != null) services.onAuthReady.accept(auth);
-            });
-            DownloadService download = new DownloadService();
-            Platform.runLater(() -> {
-                if (services.onDownloadReady != null) services.onDownloadReady.accept(download);
-            });
-            GameService game = new GameService(config);
-            Platform.runLater(() -> {
-                if (services.onGameReady != null) services.onGameReady.accept(game);
-            });
-            ServerStatusService serverStatus = new ServerStatusService();
-            Platform.runLater(() -> {
-                if (services.onServerStatusReady != null) services.onServerStatusReady.accept(serverStatus);
-            });
-            EffectsEngine effects = new EffectsEngine();
-            Platform.runLater(() -> {
-                if (services.onEffectsReady != null) services.onEffectsReady.accept(effects);
-            });
-        }, "LauncherServices-Init").start();
-        return services;
-    }
-
-    public void onAuthReady(Consumer<AuthService> c) { this.onAuthReady = c; }
-    public void onDownloadReady(Consumer<DownloadService> c) { this.onDownloadReady = c; }
-    public void onGameReady(Consumer<GameService> c) { this.onGameReady = c; }
-    public void onServerStatusReady(Consumer<ServerStatusService> c) { this.onServerStatusReady = c; }
-    public void onEffectsReady(Consumer<EffectsEngine> c) { this.onEffectsReady = c; }
+        return new LauncherServices();
+    }
+
+    public void onAuthReady(Consumer<AuthService> c) { whenReady(auth, c); }
+    public void onDownloadReady(Consumer<DownloadService> c) { whenReady(download, c); }
+    public void onGameReady(Consumer<GameService> c) { whenReady(game, c); }
+    public void onServerStatusReady(Consumer<ServerStatusService> c) { whenReady(serverStatus, c); }
+    public void onEffectsReady(Consumer<EffectsEngine> c) { whenReady(effects, c); }
+
+    /**
+     * Future of the loaded config (completes before the services that need it start).
+     */
+    public CompletableFuture<LauncherConfig> getConfig() {
+        return config;
+    }
+
+    /**
+     * Init times recorded so far, in start order.
+     */
+    public List<Timing> getTimings() {
+        synchronized (timings) {
+            List<Timing> copy = new ArrayList<>(timings);
+            copy.sort(Comparator.comparingLong(t -> t.startedAtNanos));
+            return copy;
+        }
+    }
+
+    /**
+     * A callback registered after the service is ready still runs (once, on the FX thread).
+     */
+    private static <T> void whenReady(CompletableFuture<T> future, Consumer<T> c) {
+        if (c == null) return;
+        future.thenAccept(service -> Platform.runLater(() -> c.accept(service)));
+    }
+
+    private <T> CompletableFuture<T> node(String name, Supplier<T> init, CompletableFuture<?>... deps) {
+        CompletableFuture<T> f = CompletableFuture.allOf(deps).thenApplyAsync(v -> timed(name, init), initPool);
+        f.whenComplete((service, err) -> {
+            if (err != null) {
+                Throwable cause = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+                LOG.error("Service '{}' failed to start", name, cause);
+            }
+        });
+        nodes.add(f);
+        return f;
+    }
+
+    private <T> T timed(String name, Supplier<T> init) {
+        long begin = System.nanoTime();
+        boolean ok = false;
+        try {
+            T service = init.get();
+            ok = true;
+            return service;
+        } finally {
+            long end = System.nanoTime();
+            Timing t = new Timing(name, Thread.currentThread().getName(), begin - startNanos, end - begin, ok);
+            synchronized (timings) {
+                timings.add(t);
+            }
+            LOG.info("Service '{}' initialized in {} ms{}", name, t.durationNanos / 1_000_000, ok ? "" : " (failed)");
+        }
+    }
+
+    private void writeReport() {
+        long totalMs = (System.nanoTime() - startNanos) / 1_000_000;
+        List<Timing> sorted = getTimings();
+        long sequentialMs = 0;
+        StringBuilder sb = new StringBuilder();
+        sb.append("Startup ").append(LocalDateTime.now()).append(System.lineSeparator());
+        sb.append(String.format("%-14s %8s %8s  %s%n", "service", "start", "took", "thread"));
+        for (Timing t : sorted) {
+            sequentialMs += t.durationNanos / 1_000_000;
+            sb.append(String.format("%-14s %6d ms %5d ms  %s%s%n", t.name, t.startedAtNanos / 1_000_000,
+                    t.durationNanos / 1_000_000, t.thread, t.ok ? "" : "  FAILED"));
+        }
+        sb.append(String.format("total %d ms (sum of service init %d ms, %d threads)%n", totalMs, sequentialMs, INIT_THREADS));
+        LOG.info("Launcher services ready in {} ms (sequential would be ~{} ms)", totalMs, sequentialMs);
+        try {
+            Files.createDirectories(STARTUP_REPORT.getParent());
+            Files.writeString(STARTUP_REPORT, sb.toString());
+        } catch (IOException e) {
+            LOG.debug("Could not write startup report: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Init time of one service; offsets are relative to {@link #startAsync()}.
+     */
+    public static final class Timing {
+        public final String name;
+        public final String thread;
+        public final long startedAtNanos;
+        public final long durationNanos;
+        public final boolean ok;
+
+        Timing(String name, String thread, long startedAtNanos, long durationNanos, boolean ok) {
+            this.name = name;
+            this.thread = thread;
+            this.startedAtNanos = startedAtNanos;
+            this.durationNanos = durationNanos;
+            this.ok = ok;
+        }
+    }
 }
@@ -2,15 +2,21 @@ package com.topzurdo.launcher.service;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.net.http.HttpResponse;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,8 +24,10 @@ import org.slf4j.LoggerFactory;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.topzurdo.launcher.TopZurdoLauncher;
+import com.topzurdo.launcher.download.ContentStore;
+import com.topzurdo.launcher.download.LauncherHttp;
+import com.topzurdo.launcher.util.HashUtils;
 
 /**
  * Сервис установки модов оптимизации для Fabric 1.16.5.
@@ -46,104 +54,117 @@ public class OptimizationModService {
     private static final String MC_VERSION = "1.16.5";
     private static final String LOADER = "fabric";
 
+    // Modrinth project slugs for Fabric 1.16.5 performance mods
+    // Order: dependencies first (Fabric API, MixinExtras), then essential, then optional
+    private static final ModSpec[] MODS = {
+        new ModSpec("fabric-api", "Fabric API", true),                    // Dependency: required by Dynamic FPS and others (fabric-lifecycle-events-v1)
+        new ModSpec("mixinextras", "MixinExtras", true),                  // Dependency: required by Dynamic FPS 3.x
+        new ModSpec("sodium", "Sodium", true),                            // Essential: Modern rendering engine, huge FPS boost
+        new ModSpec("lithium", "Lithium", true),                          // Essential: General optimization (AI, tick, etc.)
+        new ModSpec("starlight", "Starlight", true),                      // Essential: Optimized lighting engine
+        new ModSpec("lazydfu", "LazyDFU", false),                         // Essential: Faster game startup
+        new ModSpec("ferrite-core", "FerriteCore", false),                // Essential: RAM usage reduction
+        new ModSpec("entityculling", "Entity Culling", false),            // Recommended: Don't render hidden entities
+        new ModSpec("dynamic-fps", "Dynamic FPS", false),                 // Recommended: Lower FPS when unfocused
+        new ModSpec("krypton", "Krypton", false),                         // Recommended: Network optimization
+        new ModSpec("smoothboot-fabric", "Smooth Boot", false),           // Recommended: Smoother loading
+        new ModSpec("cull-leaves", "Cull Leaves", false),                 // Optional: Leaf culling for FPS
+        new ModSpec("ebe", "Enhanced Block Entities", false),             // Optional: Enhanced Block Entities
+        // hydrogen excluded: crashes on Java 17 (InaccessibleObjectException on java.base)
+    };
+
     private final Path modsDir;
     private final ExecutorService executor;
+    private final ExecutorService downloadPool;
+    private final ContentStore contentStore;
 
     public OptimizationModService() {
         this.modsDir = TopZurdoLauncher.MODS_DIR;
+        this.contentStore = ContentStore.shared();
         this.executor = Executors.newSingleThreadExecutor(r -> {
             Thread t = new Thread(r, "OptimizationMod-Installer");
             t.setDaemon(true);
             return t;
         });
+        this.downloadPool = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "OptimizationMod-Download");
+            t.setDaemon(true);
+            return t;
+        });
     }
 
     /**
      * Установить моды оптимизации асинхронно.
-     * FerriteCore (память), RuOK (общая оптимизация), Francium (Random).
+     * Все версии запрашиваются у Modrinth одновременно (один HTTP/2-канал), затем файлы
+     * качаются параллельно с проверкой sha512; прогресс — по мере готовности каждого мода.
      */
     public CompletableFuture<InstallResult> installOptimizationMods(ProgressCallback callback) {
         return CompletableFuture.supplyAsync(() -> {
             try {
                 Files.createDirectories(modsDir);
-                List<String> installed = new ArrayList<>();
-                List<String> failed = new ArrayList<>();
-
-                // Modrinth project slugs for Fabric 1.16.5 performance mods
-                // Order: dependencies first (Fabric API, MixinExtras), then essential, then optional
-                String[] mods = {
-                    "fabric-api",       // Dependency: required by Dynamic FPS and others (fabric-lifecycle-events-v1)
-                    "mixinextras",      // Dependency: required by Dynamic FPS 3.x
-                    "sodium",           // Essential: Modern rendering engine, huge FPS boost
-                    "lithium",          // Essential: General optimization (AI, tick, etc.)
-                    "starlight",        // Essential: Optimized lighting engine
-                    "lazydfu",          // Essential: Faster game startup
-                    "ferrite-core",     // Essential: RAM usage reduction
-                    "entityculling",    // Recommended: Don't render hidden entities
-                    "dynamic-fps",      // Recommended: Lower FPS when unfocused
-                    "krypton",          // Recommended: Network optimization
-                    "smoothboot-fabric",// Recommended: Smoother loading
-                    "cull-leaves",      // Optional: Leaf culling for FPS
-                    "ebe",              // Optional: Enhanced Block Entities
-                    // hydrogen excluded: crashes on Java 17 (InaccessibleObjectException on java.base)
-                };
-                String[] names = {
-                    "Fabric API",
-                    "MixinExtras",
-                    "Sodium",
-                    "Lithium",
-                    "Starlight",
-                    "LazyDFU",
-                    "FerriteCore",
-                    "Entity Culling",
-                    "Dynamic FPS",
-                    "Krypton",
-                    "Smooth Boot",
-                    "Cull Leaves",
-                    "Enhanced Block Entities",
-                };
+                List<String> modJars = listModJars();
+                int total = MODS.length;
+                String[] installed = new String[total];
+                String[] failed = new String[total];
+                AtomicInteger done = new AtomicInteger();
 
-                for (int i = 0; i < mods.length; i++) {
-                    if (callback != null) {
-                        callback.onProgress(names[i], i + 1, mods.length);
+                List<CompletableFuture<Void>> pipeline = new ArrayList<>();
+                for (int i = 0; i < total; i++) {
+                    final int idx = i;
+                    ModSpec mod = MODS[i];
+                    // Check if already installed
+                    if (isModInstalled(modJars, mod.slug, mod.name)) {
+                        LOGGER.info("{} already installed, skipping", mod.name);
+                        installed[idx] = mod.name + " (уже установлен)";
+                        reportProgress(callback, mod.name, done.incrementAndGet(), total);
+                        continue;
                     }
-                    try {
-                        // Check if already installed
-                        if (isModInstalled(mods[i], names[i])) {
-                            LOGGER.info("{} already installed, skipping", names[i]);
-                            installed.add(names[i] + " (уже установлен)");
-                            continue;
-                        }
-
-                        String url = fetchDownloadUrl(mods[i]);
-                        if (url != null) {
-                            String fileName = url.substring(url.lastIndexOf('/') + 1);
-                            Path dest = modsDir.resolve(fileName);
-
+                    pipeline.add(resolveVersionFile(mod.slug)
+                        .thenApplyAsync(file -> {
+                            if (file == null) {
+                                // Not found for this MC version - skip silently for optional mods
+                                LOGGER.debug("{} not found for {}", mod.name, MC_VERSION);
+                                return null;
+                            }
+                            Path dest = modsDir.resolve(file.fileName);
                             // Skip if file exists
                             if (Files.exists(dest)) {
-                                LOGGER.info("{} file exists, skipping", names[i]);
-                                installed.add(names[i] + " (уже есть)");
-                                continue;
+                                LOGGER.info("{} file exists, skipping", mod.name);
+                                return mod.name + " (уже есть)";
                             }
-
-                            downloadFile(url, dest);
-                            installed.add(names[i]);
-                            LOGGER.info("Installed {} to {}", names[i], dest);
-                        } else {
-                            // Not found for this MC version - skip silently for optional mods
-                            LOGGER.debug("{} not found for {}", names[i], MC_VERSION);
-                        }
-                    } catch (Exception e) {
-                        LOGGER.warn("Failed to install {}: {}", names[i], e.getMessage());
-                        // Don't add to failed for optional mods that might not exist
-                        if (i < 5) { // Only first 5 are essential
-                            failed.add(names[i] + ": " + e.getMessage());
-                        }
-                    }
+                            try {
+                                if (contentStore.materialize(file.sha1, dest)) {
+                                    LOGGER.info("Installed {} from local cache", mod.name);
+                                    return mod.name;
+                                }
+                                downloadFile(file.url, dest, file.sha512);
+                                contentStore.put(file.sha1, dest);
+                            } catch (IOException e) {
+                                throw new CompletionException(e);
+                            }
+                            LOGGER.info("Installed {} to {}", mod.name, dest);
+                            return mod.name;
+                        }, downloadPool)
+                        .handle((result, error) -> {
+                            if (error != null) {
+                                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                                    ? error.getCause() : error;
+                                LOGGER.warn("Failed to install {}: {}", mod.name, cause.getMessage());
+                                // Don't add to failed for optional mods that might not exist
+                                if (mod.essential) {
+                                    failed[idx] = mod.name + ": " + cause.getMessage();
+                                }
+                            } else {
+                                installed[idx] = result;
+                            }
+                            reportProgress(callback, mod.name, done.incrementAndGet(), total);
+                            return null;
+                        }));
                 }
+                CompletableFuture.allOf(pipeline.toArray(new CompletableFuture<?>[0])).join();
+                contentStore.flush();
 
-                return new InstallResult(installed, failed);
+                return new InstallResult(compact(installed), compact(failed));
             } catch (Exception e) {
                 LOGGER.error("Optimization mod install failed", e);
                 return new InstallResult(List.of(), List.of("Ошибка: " + e.getMessage()));
@@ -151,72 +172,106 @@ public class OptimizationModService {
         }, executor);
     }
 
-    private String fetchDownloadUrl(String projectSlug) throws IOException {
+    private static void reportProgress(ProgressCallback callback, String modName, int current, int total) {
+        if (callback != null) {
+            callback.onProgress(modName, current, total);
+        }
+    }
+
+    private static List<String> compact(String[] slots) {
+        List<String> out = new ArrayList<>();
+        for (String s : slots) {
+            if (s != null) out.add(s);
+        }
+        return out;
+    }
+
+    /**
+     * Latest Fabric 1.16.5 version's primary file for a project, or null if there is none.
+     * Runs asynchronously so every lookup is in flight at once.
+     */
+    private CompletableFuture<VersionFile> resolveVersionFile(String projectSlug) {
         String apiUrl = MODRINTH_API + "/project/" + projectSlug + "/version?game_versions=%5B%22"
             + MC_VERSION + "%22%5D&loaders=%5B%22" + LOADER + "%22%5D";
-        HttpURLConnection conn = (HttpURLConnection) new URL(apiUrl).openConnection();
-        conn.setRequestMethod("GET");
-        conn.setConnectTimeout(10000);
-        conn.setReadTimeout(10000);
-        conn.setRequestProperty("User-Agent", "Zurdo-Launcher/1.0");
-
-        try (InputStream is = conn.getInputStream()) {
-            String json = new String(is.readAllBytes());
-            JsonArray arr = JsonParser.parseString(json).getAsJsonArray();
+        return LauncherHttp.getJsonAsync(apiUrl).thenApply(json -> {
+            JsonArray arr = json.getAsJsonArray();
             if (arr.isEmpty()) return null;
             JsonObject ver = arr.get(0).getAsJsonObject();
             JsonArray files = ver.getAsJsonArray("files");
             if (files == null || files.isEmpty()) return null;
+            JsonObject chosen = files.get(0).getAsJsonObject();
             for (JsonElement f : files) {
                 JsonObject file = f.getAsJsonObject();
                 if (file.has("primary") && file.get("primary").getAsBoolean()) {
-                    return file.get("url").getAsString();
+                    chosen = file;
+                    break;
                 }
             }
-            return files.get(0).getAsJsonObject().get("url").getAsString();
-        } finally {
-            conn.disconnect();
-        }
+            String url = chosen.get("url").getAsString();
+            String fileName = chosen.has("filename")
+                ? chosen.get("filename").getAsString()
+                : url.substring(url.lastIndexOf('/') + 1);
+            String sha512 = null;
+            String sha1 = null;
+            if (chosen.has("hashes")) {
+                JsonObject hashes = chosen.getAsJsonObject("hashes");
+                if (hashes.has("sha512")) sha512 = hashes.get("sha512").getAsString();
+                if (hashes.has("sha1")) sha1 = hashes.get("sha1").getAsString();
+            }
+            return new VersionFile(url, fileName, sha512, sha1);
+        });
     }
 
-    private void downloadFile(String url, Path dest) throws IOException {
-        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
-        conn.setRequestMethod("GET");
-        conn.setConnectTimeout(15000);
-        conn.setReadTimeout(60000);
-        conn.setRequestProperty("User-Agent", "TopZurdo-Launcher/1.0");
-        conn.setInstanceFollowRedirects(true);
-
-        int responseCode = conn.getResponseCode();
-        if (responseCode != 200) {
-            throw new IOException("HTTP " + responseCode + " for " + url);
+    /**
+     * Stream to "&lt;name&gt;.part" while hashing, move into place only if the sha512 matches.
+     * The .part file is removed on any failure, so no stray file is left in the mods folder.
+     */
+    private void downloadFile(String url, Path dest, String expectedSha512) throws IOException {
+        Path part = dest.resolveSibling(dest.getFileName() + ".part");
+        MessageDigest digest = HashUtils.newDigest("SHA-512");
+        try {
+            HttpResponse<InputStream> response = LauncherHttp.getStream(url);
+            try (InputStream is = new DigestInputStream(response.body(), digest)) {
+                Files.copy(is, part, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String actual = HashUtils.toHex(digest.digest());
+            if (expectedSha512 != null && !actual.equalsIgnoreCase(expectedSha512)) {
+                throw new IOException("sha512 mismatch for " + dest.getFileName());
+            }
+            Files.move(part, dest, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException cleanup) {
+                e.addSuppressed(cleanup);
+            }
+            throw e;
         }
+    }
 
-        try (InputStream is = conn.getInputStream()) {
-            Files.copy(is, dest, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
-        } finally {
-            conn.disconnect();
+    private List<String> listModJars() {
+        if (!Files.exists(modsDir)) return List.of();
+        try (Stream<Path> files = Files.list(modsDir)) {
+            return files
+                .map(p -> p.getFileName().toString().toLowerCase())
+                .filter(name -> name.endsWith(".jar"))
+                .map(name -> name.replace("-", "").replace("_", ""))
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            return List.of();
         }
     }
 
     /**
      * Check if a mod is already installed by looking for jar files with matching name pattern.
      */
-    private boolean isModInstalled(String projectSlug, String modName) {
-        if (!Files.exists(modsDir)) return false;
-        try {
-            String searchName = modName.toLowerCase().replace(" ", "");
-            String searchSlug = projectSlug.toLowerCase().replace("-", "");
-
-            return Files.list(modsDir)
-                .filter(p -> p.toString().endsWith(".jar"))
-                .anyMatch(p -> {
-                    String fileName = p.getFileName().toString().toLowerCase().replace("-", "").replace("_", "");
-                    return fileName.contains(searchName) || fileName.contains(searchSlug);
-                });
-        } catch (IOException e) {
-            return false;
+    private static boolean isModInstalled(List<String> modJars, String projectSlug, String modName) {
+        String searchName = modName.toLowerCase().replace(" ", "");
+        String searchSlug = projectSlug.toLowerCase().replace("-", "");
+        for (String fileName : modJars) {
+            if (fileName.contains(searchName) || fileName.contains(searchSlug)) return true;
         }
+        return false;
     }
 
     /**
@@ -224,6 +279,7 @@ public class OptimizationModService {
      */
     public List<String> getInstalledOptMods() {
         List<String> result = new ArrayList<>();
+        List<String> modJars = listModJars();
         String[] mods = { "fabric-api", "mixinextras", "sodium", "lithium", "starlight", "lazydfu", "ferrite", "entityculling",
                          "dynamic-fps", "krypton", "smoothboot", "cull-leaves", "ebe" };
         String[] names = { "Fabric API", "MixinExtras", "Sodium", "Lithium", "Starlight", "LazyDFU", "FerriteCore",
@@ -231,7 +287,7 @@ public class OptimizationModService {
                           "Cull Leaves", "Enhanced Block Entities" };
 
         for (int i = 0; i < mods.length; i++) {
-            if (isModInstalled(mods[i], names[i])) {
+            if (isModInstalled(modJars, mods[i], names[i])) {
                 result.add(names[i]);
             }
         }
@@ -240,6 +296,33 @@ public class OptimizationModService {
 
     public void shutdown() {
         executor.shutdown();
+        downloadPool.shutdown();
+    }
+
+    private static class ModSpec {
+        final String slug;
+        final String name;
+        final boolean essential;
+
+        ModSpec(String slug, String name, boolean essential) {
+            this.slug = slug;
+            this.name = name;
+            this.essential = essential;
+        }
+    }
+
+    private static class VersionFile {
+        final String url;
+        final String fileName;
+        final String sha512;
+        final String sha1;
+
+        VersionFile(String url, String fileName, String sha512, String sha1) {
+            this.url = url;
+            this.fileName = fileName;
+            this.sha512 = sha512;
+            this.sha1 = sha1;
+        }
     }
 
     public interface ProgressCallback {
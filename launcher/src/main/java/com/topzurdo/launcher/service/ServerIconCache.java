@@ -0,0 +1,117 @@
+package com.topzurdo.launcher.service;
+
+import com.topzurdo.launcher.TopZurdoLauncher;
+import com.topzurdo.launcher.util.HashUtils;
+import javafx.scene.image.Image;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Server favicons (64x64 PNG sent base64-encoded in the status response).
+ *
+ * <p>Icons are keyed by the SHA-1 of the data URI. Decoded {@link Image}s live in a small LRU,
+ * the PNGs in ~/.topzurdo/cache/icons/&lt;hash&gt;.png, so a refresh that returns the same favicon
+ * costs one hash, and a restart reads the PNG instead of decoding base64 again. Decoding runs on a
+ * background thread; the FX thread only receives finished images.</p>
+ */
+public class ServerIconCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServerIconCache.class);
+    private static final String DATA_URI_PREFIX = "data:image/png;base64,";
+    private static final int MAX_IMAGES = 64;
+
+    private final Path iconsDir;
+    private final Map<String, Image> images = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Image> eldest) {
+            return size() > MAX_IMAGES;
+        }
+    };
+    private final ExecutorService decoder = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "ServerIconCache");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public ServerIconCache() {
+        this(TopZurdoLauncher.CONFIG_DIR.resolve("cache").resolve("icons"));
+    }
+
+    public ServerIconCache(Path iconsDir) {
+        this.iconsDir = iconsDir;
+    }
+
+    /**
+     * Icon of a server status, or a future completing with null when the server sent none
+     * or it cannot be decoded. Completes on the decoder thread (or immediately on a memory hit).
+     */
+    public CompletableFuture<Image> getIcon(ServerStatusService.ServerStatus status) {
+        StatusResponse details = status != null ? status.getDetails() : null;
+        if (details == null || !details.hasFavicon()) return CompletableFuture.completedFuture(null);
+        return CompletableFuture.supplyAsync(() -> load(details.getFavicon()), decoder);
+    }
+
+    private Image load(String dataUri) {
+        if (dataUri == null || !dataUri.startsWith(DATA_URI_PREFIX)) return null;
+        String hash = HashUtils.toHex(HashUtils.sha1().digest(dataUri.getBytes(StandardCharsets.US_ASCII)));
+        synchronized (images) {
+            Image cached = images.get(hash);
+            if (cached != null) return cached;
+        }
+
+        Path file = iconsDir.resolve(hash + ".png");
+        Image image = null;
+        if (Files.isRegularFile(file)) {
+            try (InputStream in = Files.newInputStream(file)) {
+                image = new Image(in);
+            } catch (IOException e) {
+                LOG.debug("Cached icon unreadable {}: {}", file, e.getMessage());
+            }
+        }
+        if (image == null || image.isError()) {
+            byte[] png;
+            try {
+                png = Base64.getMimeDecoder().decode(dataUri.substring(DATA_URI_PREFIX.length()));
+            } catch (IllegalArgumentException e) {
+                LOG.debug("Invalid favicon data: {}", e.getMessage());
+                return null;
+            }
+            image = new Image(new ByteArrayInputStream(png));
+            if (image.isError()) return null;
+            store(file, png);
+        }
+        synchronized (images) {
+            images.put(hash, image);
+        }
+        return image;
+    }
+
+    private void store(Path file, byte[] png) {
+        try {
+            Files.createDirectories(iconsDir);
+            Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(tmp, png);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            LOG.debug("Could not cache icon {}: {}", file, e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        decoder.shutdownNow();
+    }
+}
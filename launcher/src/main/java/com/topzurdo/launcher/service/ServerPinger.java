@@ -0,0 +1,404 @@
+package com.topzurdo.launcher.service;
+
+import com.topzurdo.launcher.util.ServerAddressResolver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking Server List Ping client.
+ *
+ * <p>One selector thread drives every query in flight: connect, send handshake + status request,
+ * read the status response, then a ping packet whose pong gives the protocol-level round trip
+ * (timed with {@link System#nanoTime()}). A dead or slow host only occupies its own channel until
+ * its deadline, so a list of 50 servers completes in roughly the slowest responsive server's round trip.</p>
+ */
+public class ServerPinger implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ServerPinger.class);
+
+    private static final int PROTOCOL_VERSION = 47;
+    private static final int MAX_PACKET_LENGTH = 0x100000;
+    /** How long to wait for a pong once the status has arrived. */
+    private static final long PONG_TIMEOUT_NANOS = 1_000_000_000L;
+
+    private final Selector selector;
+    private final Thread selectorThread;
+    private final ExecutorService dnsExecutor;
+    private final Queue<Query> pending = new ConcurrentLinkedQueue<>();
+    private volatile boolean closed;
+
+    public ServerPinger() {
+        try {
+            this.selector = Selector.open();
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not open selector", e);
+        }
+        AtomicInteger counter = new AtomicInteger();
+        this.dnsExecutor = Executors.newFixedThreadPool(4, r -> {
+            Thread t = new Thread(r, "ServerPinger-DNS-" + counter.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        this.selectorThread = new Thread(this::runLoop, "ServerPinger-Selector");
+        this.selectorThread.setDaemon(true);
+        this.selectorThread.start();
+    }
+
+    /**
+     * Query one server. The future fails with {@link TimeoutException} if the whole exchange
+     * (DNS, connect, response) takes longer than {@code timeoutMs}; the deadline runs from this call,
+     * so a hung name lookup times out too. A server that answers the status request but not the ping
+     * still succeeds, with {@link Response#pongNanos} = -1.
+     */
+    public CompletableFuture<Response> ping(String host, int port, int timeoutMs) {
+        CompletableFuture<Response> future = new CompletableFuture<>();
+        if (closed) {
+            future.completeExceptionally(new IllegalStateException("Pinger is closed"));
+            return future;
+        }
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        // Until the query reaches the selector, expire() cannot see it: whoever claims it first,
+        // the lookup or this timer, owns the outcome
+        AtomicBoolean claimed = new AtomicBoolean();
+        CompletableFuture.delayedExecutor(timeoutMs, TimeUnit.MILLISECONDS).execute(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                future.completeExceptionally(new TimeoutException("No address for " + host + ":" + port + " in time"));
+            }
+        });
+        // Name lookups (SRV + address, cached) block; keep them off the selector thread
+        dnsExecutor.execute(() -> {
+            if (future.isDone()) return; // timed out while queued behind other lookups
+            ServerAddressResolver resolver = ServerAddressResolver.shared();
+            ServerAddressResolver.Target target = resolver.resolveTarget(host, port);
+            InetSocketAddress address;
+            try {
+                address = resolver.resolve(target);
+            } catch (UnknownHostException e) {
+                if (claimed.compareAndSet(false, true)) future.completeExceptionally(e);
+                return;
+            }
+            if (!claimed.compareAndSet(false, true)) return;
+            // Like the game client, the handshake names the SRV target
+            pending.add(new Query(host, port, target.host, address, deadline, future));
+            selector.wakeup();
+        });
+        return future;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        dnsExecutor.shutdownNow();
+        selector.wakeup();
+    }
+
+    private void runLoop() {
+        try {
+            while (!closed) {
+                registerPending();
+                selector.select(nextTimeoutMs());
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey key = it.next();
+                    it.remove();
+                    handle(key);
+                }
+                expire();
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            LOG.warn("Server pinger stopped: {}", e.getMessage());
+        } finally {
+            for (SelectionKey key : selector.keys()) {
+                ((Query) key.attachment()).fail(new IOException("Pinger closed"));
+            }
+            Query q;
+            while ((q = pending.poll()) != null) q.fail(new IOException("Pinger closed"));
+            try {
+                selector.close();
+            } catch (IOException ignored) { }
+        }
+    }
+
+    private void registerPending() {
+        Query q;
+        while ((q = pending.poll()) != null) {
+            try {
+                q.channel = SocketChannel.open();
+                q.channel.configureBlocking(false);
+                q.startNanos = System.nanoTime();
+                if (q.channel.connect(q.address)) {
+                    q.connectedNanos = System.nanoTime();
+                    q.channel.register(selector, SelectionKey.OP_WRITE, q);
+                } else {
+                    q.channel.register(selector, SelectionKey.OP_CONNECT, q);
+                }
+            } catch (IOException e) {
+                q.fail(e);
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        Query q = (Query) key.attachment();
+        try {
+            if (!key.isValid()) return;
+            if (key.isConnectable() && q.channel.finishConnect()) {
+                q.connectedNanos = System.nanoTime();
+                key.interestOps(SelectionKey.OP_WRITE);
+            }
+            if (key.isValid() && key.isWritable()) {
+                q.channel.write(q.out);
+                if (!q.out.hasRemaining()) key.interestOps(SelectionKey.OP_READ);
+            }
+            if (key.isValid() && key.isReadable()) {
+                if (!q.in.hasRemaining()) q.in = grow(q.in);
+                if (q.channel.read(q.in) < 0) throw new IOException("Connection closed by server");
+                if (q.statusJson == null) {
+                    ByteBuffer json = q.tryParseStatus();
+                    if (json != null) {
+                        q.statusJson = json;
+                        q.sendPing(key);
+                    }
+                }
+                if (q.statusJson != null && q.tryParsePong()) q.complete();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (q.statusJson != null) {
+                q.complete(); // status arrived; some servers just drop the connection instead of a pong
+            } else {
+                q.fail(e);
+            }
+        }
+    }
+
+    private long nextTimeoutMs() {
+        long now = System.nanoTime();
+        long nearest = Long.MAX_VALUE;
+        for (SelectionKey key : selector.keys()) {
+            nearest = Math.min(nearest, ((Query) key.attachment()).deadlineNanos);
+        }
+        if (nearest == Long.MAX_VALUE) return 0; // nothing in flight: block until wakeup()
+        return Math.max(1, (nearest - now) / 1_000_000 + 1);
+    }
+
+    private void expire() {
+        long now = System.nanoTime();
+        for (SelectionKey key : selector.keys()) {
+            Query q = (Query) key.attachment();
+            if (now - q.deadlineNanos >= 0) {
+                if (q.statusJson != null) {
+                    q.complete();
+                } else {
+                    q.fail(new TimeoutException("No response from " + q.host + ":" + q.port));
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buf) {
+        if (buf.capacity() >= MAX_PACKET_LENGTH + 10) throw new IllegalStateException("Status response too large");
+        ByteBuffer bigger = ByteBuffer.allocate(Math.min(buf.capacity() * 2, MAX_PACKET_LENGTH + 10));
+        buf.flip();
+        bigger.put(buf);
+        return bigger;
+    }
+
+    /**
+     * Handshake (next state = status) followed by an empty status request, both length-prefixed.
+     */
+    static ByteBuffer buildStatusRequest(String host, int port) {
+        byte[] hostBytes = host.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer body = ByteBuffer.allocate(hostBytes.length + 16);
+        putVarInt(body, 0x00);
+        putVarInt(body, PROTOCOL_VERSION);
+        putVarInt(body, hostBytes.length);
+        body.put(hostBytes);
+        body.putShort((short) port);
+        putVarInt(body, 1);
+        body.flip();
+
+        ByteBuffer out = ByteBuffer.allocate(body.remaining() + 8);
+        putVarInt(out, body.remaining());
+        out.put(body);
+        putVarInt(out, 1);
+        putVarInt(out, 0x00);
+        out.flip();
+        return out;
+    }
+
+    static void putVarInt(ByteBuffer buf, int value) {
+        while ((value & ~0x7F) != 0) {
+            buf.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buf.put((byte) value);
+    }
+
+    /**
+     * VarInt at the buffer position, or -1 (position unchanged) if it is not complete yet.
+     */
+    static int getVarInt(ByteBuffer buf) throws IOException {
+        int start = buf.position();
+        int value = 0;
+        int shift = 0;
+        while (buf.hasRemaining()) {
+            byte b = buf.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+            shift += 7;
+            if (shift > 28) throw new IOException("VarInt too long");
+        }
+        buf.position(start);
+        return -1;
+    }
+
+    /**
+     * Raw outcome of one status query.
+     */
+    public static class Response {
+        public final String host;
+        public final int port;
+        /** Status JSON (UTF-8), positioned at its first byte. Read-only view, not a copy. */
+        public final ByteBuffer statusJson;
+        /** TCP connect time. */
+        public final long connectNanos;
+        /** Ping packet round trip, or -1 if the server did not answer it. */
+        public final long pongNanos;
+
+        Response(String host, int port, ByteBuffer statusJson, long connectNanos, long pongNanos) {
+            this.host = host;
+            this.port = port;
+            this.statusJson = statusJson;
+            this.connectNanos = connectNanos;
+            this.pongNanos = pongNanos;
+        }
+
+        /** Best available round trip: the pong if there was one, otherwise the TCP connect. */
+        public long latencyNanos() {
+            return pongNanos >= 0 ? pongNanos : connectNanos;
+        }
+    }
+
+    private static final class Query {
+        final String host;
+        final int port;
+        final InetSocketAddress address;
+        long deadlineNanos;
+        final CompletableFuture<Response> future;
+        ByteBuffer out;
+        ByteBuffer in = ByteBuffer.allocate(4096);
+        SocketChannel channel;
+        long startNanos;
+        long connectedNanos;
+        ByteBuffer statusJson;
+        long pingPayload;
+        long pingSentNanos;
+        long pongNanos = -1;
+
+        Query(String host, int port, String handshakeHost, InetSocketAddress address, long deadlineNanos,
+              CompletableFuture<Response> future) {
+            this.host = host;
+            this.port = port;
+            this.address = address;
+            this.deadlineNanos = deadlineNanos;
+            this.future = future;
+            this.out = buildStatusRequest(handshakeHost, address.getPort());
+        }
+
+        /**
+         * Status JSON once the whole response packet has arrived, otherwise null.
+         */
+        ByteBuffer tryParseStatus() throws IOException {
+            ByteBuffer view = in.duplicate();
+            view.flip();
+            int length = getVarInt(view);
+            if (length < 0 || view.remaining() < length) {
+                if (length > MAX_PACKET_LENGTH) throw new IOException("Status response too large: " + length);
+                return null;
+            }
+            ByteBuffer packet = view.slice();
+            packet.limit(length);
+            int id = getVarInt(packet);
+            if (id != 0x00) throw new IOException("Unexpected packet id " + id);
+            int jsonLength = getVarInt(packet);
+            if (jsonLength < 0 || jsonLength > packet.remaining()) throw new IOException("Malformed status response");
+            ByteBuffer json = packet.slice();
+            json.limit(jsonLength);
+
+            // Anything after the status packet belongs to the pong; the JSON view keeps the old buffer alive
+            view.position(view.position() + length);
+            in = ByteBuffer.allocate(Math.max(64, view.remaining()));
+            in.put(view);
+            return json.asReadOnlyBuffer();
+        }
+
+        /**
+         * Send the ping packet (id 0x01, 8-byte payload) and switch to waiting for the pong.
+         */
+        void sendPing(SelectionKey key) throws IOException {
+            pingPayload = System.nanoTime();
+            out = ByteBuffer.allocate(10);
+            putVarInt(out, 9);
+            putVarInt(out, 0x01);
+            out.putLong(pingPayload);
+            out.flip();
+            pingSentNanos = System.nanoTime();
+            deadlineNanos = Math.min(deadlineNanos, pingSentNanos + PONG_TIMEOUT_NANOS);
+            channel.write(out);
+            key.interestOps(out.hasRemaining() ? SelectionKey.OP_WRITE : SelectionKey.OP_READ);
+        }
+
+        /**
+         * True once the matching pong has been read; records the round trip.
+         */
+        boolean tryParsePong() throws IOException {
+            long now = System.nanoTime();
+            ByteBuffer view = in.duplicate();
+            view.flip();
+            int length = getVarInt(view);
+            if (length < 0 || view.remaining() < length) return false;
+            int id = getVarInt(view);
+            if (id != 0x01 || length < 9) throw new IOException("Unexpected packet id " + id + " instead of pong");
+            if (view.getLong() != pingPayload) throw new IOException("Pong payload mismatch");
+            pongNanos = now - pingSentNanos;
+            return true;
+        }
+
+        void complete() {
+            close();
+            future.complete(new Response(host, port, statusJson, connectedNanos - startNanos, pongNanos));
+        }
+
+        void fail(Throwable error) {
+            close();
+            future.completeExceptionally(error);
+        }
+
+        private void close() {
+            if (channel == null) return;
+            try {
+                channel.close(); // also cancels the selection key
+            } catch (IOException ignored) { }
+        }
+    }
+}
@@ -1,180 +1,350 @@
 package com.topzurdo.launcher.service;
 
+import com.topzurdo.launcher.util.ServerAddressResolver;
 import javafx.application.Platform;
+import javafx.scene.image.Image;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
-
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.net.InetSocketAddress;
-import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 
 /**
- * Service for checking Minecraft server status
+ * Service for checking Minecraft server status.
+ *
+ * <p>Addresses are resolved through {@link ServerAddressResolver} (SRV records, cached DNS).
+ * Queries go through a non-blocking {@link ServerPinger}, so any number of servers can be
+ * checked at once ({@link #checkAllAsync}) and a dead host never delays the others. Results are
+ * reused for {@value #RESULT_TTL_MS} ms, so several views refreshing the same server share one query.</p>
+ *
+ * <p>Background polling ({@link #start()}) is adaptive: every {@value #FOREGROUND_INTERVAL_MS} ms while
+ * the status is on screen, every {@value #BACKGROUND_INTERVAL_MS} ms otherwise, doubling after each
+ * failure up to {@value #MAX_BACKOFF_MS} ms, and suspended while the pause condition holds (the game
+ * is running). Concurrent requests for the same server share one query.</p>
+ *
+ * <p>Latency is the protocol ping/pong round trip. Every real query also feeds a per-server window
+ * of the last {@value #STATS_WINDOW} attempts, exposed as {@link PingStats} on each status.</p>
  */
 public class ServerStatusService {
 
     private static final Logger LOG = LoggerFactory.getLogger(ServerStatusService.class);
 
+    public static final int DEFAULT_PORT = ServerAddressResolver.DEFAULT_PORT;
+    /** Per-host budget for DNS + connect + response. */
+    private static final int PING_TIMEOUT_MS = 5000;
+    private static final long RESULT_TTL_MS = 5000;
+    private static final int STATS_WINDOW = 20;
+
+    private static final long FOREGROUND_INTERVAL_MS = 10_000;
+    private static final long BACKGROUND_INTERVAL_MS = 30_000;
+    private static final long MAX_BACKOFF_MS = 300_000;
+    /** How often a paused poller re-checks the pause condition. */
+    private static final long PAUSED_RECHECK_MS = 5_000;
+
     private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread t = new Thread(r, "ServerStatusService");
         t.setDaemon(true);
         return t;
     });
+    private final ServerPinger pinger = new ServerPinger();
+    private final ServerIconCache iconCache = new ServerIconCache();
+    private final Map<String, CachedStatus> recent = new ConcurrentHashMap<>();
+    private final Map<String, PingWindow> windows = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<ServerStatus>> inFlight = new ConcurrentHashMap<>();
 
     private String serverAddress = "funtime.su";
-    private int serverPort = 25565;
-    private Consumer<ServerStatus> statusCallback;
+    private int serverPort = DEFAULT_PORT;
+    private volatile Consumer<ServerStatus> statusCallback;
+    private volatile BooleanSupplier pauseCondition = () -> false;
+    private volatile boolean foreground = true;
+    private int consecutiveFailures;
+    private boolean started;
+    private ScheduledFuture<?> nextPoll;
 
+    /**
+     * Server polled in the background. Triggers an immediate poll when polling is running.
+     */
     public void setServer(String address, int port) {
+        boolean changed = !address.equals(serverAddress) || port != serverPort;
         this.serverAddress = address;
         this.serverPort = port;
+        if (changed) {
+            synchronized (this) {
+                consecutiveFailures = 0;
+            }
+            pollSoon();
+        }
     }
 
     public void setStatusCallback(Consumer<ServerStatus> callback) {
         this.statusCallback = callback;
     }
 
-    public void start() {
-        executor.scheduleAtFixedRate(this::checkStatus, 0, 30, TimeUnit.SECONDS);
+    /**
+     * Background polling is suspended while this returns true (e.g. while the game is running).
+     */
+    public void setPauseCondition(BooleanSupplier condition) {
+        this.pauseCondition = condition != null ? condition : () -> false;
     }
 
-    public void stop() {
-        executor.shutdown();
+    /**
+     * Whether the status is visible to the user. Becoming visible refreshes right away if the
+     * last result is older than the foreground interval.
+     */
+    public void setForeground(boolean visible) {
+        boolean wasForeground = foreground;
+        foreground = visible;
+        if (visible && !wasForeground) pollSoon();
+    }
+
+    public synchronized void start() {
+        if (started) return;
+        started = true;
+        schedulePoll(0);
+    }
+
+    public synchronized void stop() {
+        started = false;
+        if (nextPoll != null) nextPoll.cancel(false);
     }
 
     public void shutdown() {
         executor.shutdown();
+        pinger.close();
+        iconCache.shutdown();
+    }
+
+    /**
+     * Server favicon of a status (cached on disk and in memory, decoded off the FX thread),
+     * or a future with null if the server has none.
+     */
+    public CompletableFuture<Image> getIconAsync(ServerStatus status) {
+        return iconCache.getIcon(status);
     }
 
     public void checkStatusAsync(String host, int port, Consumer<ServerStatus> callback) {
-        executor.execute(() -> {
-            try {
-                ServerStatus status = pingServer(host, port);
-                Platform.runLater(() -> callback.accept(status));
-            } catch (Exception e) {
-                LOG.debug("Server check failed: {}", e.getMessage());
-                Platform.runLater(() -> callback.accept(new ServerStatus(false, 0, 0, -1, host, null, false)));
+        query(host, port).thenAccept(status -> Platform.runLater(() -> callback.accept(status)));
+    }
+
+    /**
+     * Query a whole server list concurrently. Entries are "host" or "host:port";
+     * the result has one status per entry, in the same order (offline for failures).
+     */
+    public CompletableFuture<List<ServerStatus>> checkAllAsync(List<String> servers) {
+        List<CompletableFuture<ServerStatus>> queries = new ArrayList<>(servers.size());
+        for (String server : servers) {
+            String host = server;
+            int port = DEFAULT_PORT;
+            int colon = server.lastIndexOf(':');
+            if (colon > 0) {
+                host = server.substring(0, colon);
+                try {
+                    port = Integer.parseInt(server.substring(colon + 1));
+                } catch (NumberFormatException ignored) { }
             }
-        });
+            queries.add(query(host, port));
+        }
+        return CompletableFuture.allOf(queries.toArray(new CompletableFuture<?>[0]))
+            .thenApply(v -> {
+                List<ServerStatus> result = new ArrayList<>(queries.size());
+                for (CompletableFuture<ServerStatus> q : queries) result.add(q.join());
+                return result;
+            });
     }
 
-    private void checkStatus() {
+    private void pollSoon() {
+        synchronized (this) {
+            if (!started) return;
+        }
+        CachedStatus cached = recent.get(key(serverAddress, serverPort));
+        long age = cached != null ? System.currentTimeMillis() - cached.time : Long.MAX_VALUE;
+        if (age >= FOREGROUND_INTERVAL_MS) schedulePoll(0);
+    }
+
+    private synchronized void schedulePoll(long delayMs) {
+        if (!started || executor.isShutdown()) return;
+        if (nextPoll != null) nextPoll.cancel(false);
         try {
-            ServerStatus status = pingServer(serverAddress, serverPort);
-            if (statusCallback != null) {
-                Platform.runLater(() -> statusCallback.accept(status));
+            nextPoll = executor.schedule(this::poll, delayMs, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            started = false; // shut down concurrently
+        }
+    }
+
+    private void poll() {
+        if (pauseCondition.getAsBoolean()) {
+            schedulePoll(PAUSED_RECHECK_MS);
+            return;
+        }
+        query(serverAddress, serverPort).thenAccept(status -> {
+            long delay;
+            synchronized (this) {
+                consecutiveFailures = status.online ? 0 : Math.min(consecutiveFailures + 1, 16);
+                long base = foreground ? FOREGROUND_INTERVAL_MS : BACKGROUND_INTERVAL_MS;
+                delay = Math.min(MAX_BACKOFF_MS, base << consecutiveFailures);
             }
-        } catch (Exception e) {
-            LOG.debug("Server ping failed: {}", e.getMessage());
-            if (statusCallback != null) {
-                Platform.runLater(() -> statusCallback.accept(new ServerStatus(false, 0, 0, -1, serverAddress, null, false)));
+            schedulePoll(delay);
+            Consumer<ServerStatus> callback = statusCallback;
+            if (callback != null) {
+                Platform.runLater(() -> callback.accept(status));
             }
-        }
+        });
     }
 
-    private ServerStatus pingServer(String address, int port) throws IOException {
-        try (Socket socket = new Socket()) {
-            long start = System.currentTimeMillis();
-            socket.connect(new InetSocketAddress(address, port), 5000);
-            long ping = System.currentTimeMillis() - start;
+    private static String key(String host, int port) {
+        return host.toLowerCase() + ":" + port;
+    }
 
-            // Basic handshake
-            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
-            DataInputStream in = new DataInputStream(socket.getInputStream());
+    /**
+     * Status of one server; never completes exceptionally (failures become an offline status).
+     * A recent result is reused, and callers asking while a query is in flight join that query.
+     */
+    private CompletableFuture<ServerStatus> query(String host, int port) {
+        String key = key(host, port);
+        CachedStatus cached = recent.get(key);
+        if (cached != null && System.currentTimeMillis() - cached.time < RESULT_TTL_MS) {
+            return CompletableFuture.completedFuture(cached.status);
+        }
+        CompletableFuture<ServerStatus> running = inFlight.get(key);
+        if (running != null) return running;
+        CompletableFuture<ServerStatus> mine = new CompletableFuture<>();
+        running = inFlight.putIfAbsent(key, mine);
+        if (running != null) return running;
 
-            // Send handshake
-            writeVarInt(out, 0x00);
-            writeVarInt(out, 47); // Protocol version
-            writeString(out, address);
-            out.writeShort(port);
-            writeVarInt(out, 1); // Next state: status
+        PingWindow window = windows.computeIfAbsent(key, k -> new PingWindow(STATS_WINDOW));
+        pinger.ping(host, port, PING_TIMEOUT_MS)
+            .thenApply(response -> {
+                window.record(response.latencyNanos());
+                return toStatus(response).withPingStats(window.stats());
+            })
+            .exceptionally(e -> {
+                LOG.debug("Server ping failed for {}:{}: {}", host, port, e.getMessage());
+                window.record(-1);
+                return new ServerStatus(false, 0, 0, -1, host, null, false).withPingStats(window.stats());
+            })
+            .thenAccept(status -> {
+                recent.put(key, new CachedStatus(status, System.currentTimeMillis()));
+                inFlight.remove(key, mine);
+                mine.complete(status);
+            });
+        return mine;
+    }
 
-            // Send status request
-            writeVarInt(out, 0x00);
+    /**
+     * Rolling latency statistics for a server, or null if it was never queried.
+     */
+    public PingStats getPingStats(String host, int port) {
+        PingWindow window = windows.get(key(host, port));
+        return window != null ? window.stats() : null;
+    }
 
-            // Read response: VarInt length, then packet (VarInt id, VarInt jsonLen, JSON)
-            int packetLength = readVarInt(in);
-            if (packetLength <= 0 || packetLength > 0x100000) {
-                return new ServerStatus(true, 0, 0, (int) ping, address, null, false);
+    /**
+     * Online server with the best sustained latency (p95, penalized by packet loss), or null if none is online.
+     */
+    public static ServerStatus pickBest(List<ServerStatus> statuses) {
+        ServerStatus best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (ServerStatus s : statuses) {
+            if (s == null || !s.online) continue;
+            PingStats stats = s.getPingStats();
+            double score = stats != null && stats.samples > 0
+                ? stats.p95Ms + stats.lossRatio * 1000
+                : s.ping;
+            if (score < bestScore) {
+                bestScore = score;
+                best = s;
             }
-            byte[] packet = new byte[packetLength];
-            in.readFully(packet);
-            String motd = parseMotdFromPacket(packet);
-            int players = 0, maxPlayers = 0;
-            try {
-                JsonObject root = JsonParser.parseString(motd).getAsJsonObject();
-                if (root.has("players")) {
-                    JsonObject p = root.getAsJsonObject("players");
-                    if (p.has("online")) players = p.get("online").getAsInt();
-                    if (p.has("max")) maxPlayers = p.get("max").getAsInt();
-                }
-            } catch (Exception ignored) { }
-            boolean recentWipe = isRecentWipeInMotd(motd);
-            return new ServerStatus(true, players, maxPlayers, (int) ping, address, motd, recentWipe);
         }
+        return best;
     }
 
-    private String parseMotdFromPacket(byte[] packet) {
-        int[] offset = { 0 };
-        readVarIntFromBytes(packet, offset); // packet id
-        int jsonLen = readVarIntFromBytes(packet, offset);
-        if (offset[0] + jsonLen > packet.length) return "{}";
-        return new String(packet, offset[0], jsonLen, StandardCharsets.UTF_8);
-    }
-
-    private int readVarIntFromBytes(byte[] data, int[] offset) {
-        int value = 0, shift = 0;
-        byte b;
-        do {
-            if (offset[0] >= data.length) return 0;
-            b = data[offset[0]++];
-            value |= (b & 0x7F) << shift;
-            shift += 7;
-        } while ((b & 0x80) != 0);
-        return value;
+    private static ServerStatus toStatus(ServerPinger.Response response) {
+        int ping = (int) Math.round(response.latencyNanos() / 1e6);
+        try {
+            StatusResponse details = StatusResponse.parse(response.statusJson);
+            String motd = details.getDescription();
+            return new ServerStatus(true, details.getOnlinePlayers(), details.getMaxPlayers(), ping,
+                response.host, motd, isRecentWipeInMotd(motd), null, details);
+        } catch (IOException e) {
+            // Server answered, the JSON is just unusable
+            LOG.debug("Unreadable status from {}: {}", response.host, e.getMessage());
+            return new ServerStatus(true, 0, 0, ping, response.host, null, false);
+        }
     }
 
     /** Определяет по MOTD, что был недавний вайп (Wipe: / Вайп / wipe). */
     private static boolean isRecentWipeInMotd(String motd) {
         if (motd == null || motd.isEmpty()) return false;
-        String lower = motd.toLowerCase();
-        return lower.contains("wipe") || lower.contains("вайп") || lower.contains("вайп:");
+        return StatusResponse.containsIgnoreCase(motd, "wipe") || StatusResponse.containsIgnoreCase(motd, "вайп");
     }
 
-    private void writeVarInt(DataOutputStream out, int value) throws IOException {
-        while ((value & ~0x7F) != 0) {
-            out.writeByte((value & 0x7F) | 0x80);
-            value >>>= 7;
+    /**
+     * Last N query outcomes of one server: round trips of successful ones and failures (for loss).
+     */
+    private static class PingWindow {
+        private final long[] rttNanos;
+        private int next;
+        private int count;
+
+        PingWindow(int size) {
+            this.rttNanos = new long[size];
         }
-        out.writeByte(value);
-    }
 
-    private void writeString(DataOutputStream out, String str) throws IOException {
-        byte[] bytes = str.getBytes();
-        writeVarInt(out, bytes.length);
-        out.write(bytes);
+        /** Round trip of a successful query, or -1 for a lost one. */
+        synchronized void record(long nanos) {
+            rttNanos[next] = nanos;
+            next = (next + 1) % rttNanos.length;
+            if (count < rttNanos.length) count++;
+        }
+
+        synchronized PingStats stats() {
+            double[] ok = new double[count];
+            int n = 0;
+            int lost = 0;
+            double jitter = 0;
+            double prev = -1;
+            int start = (next - count + rttNanos.length) % rttNanos.length;
+            for (int i = 0; i < count; i++) {
+                long v = rttNanos[(start + i) % rttNanos.length];
+                if (v < 0) {
+                    lost++;
+                    continue;
+                }
+                double ms = v / 1e6;
+                if (prev >= 0) jitter += Math.abs(ms - prev);
+                prev = ms;
+                ok[n++] = ms;
+            }
+            if (n == 0) return new PingStats(count, -1, -1, -1, -1, count > 0 ? 1.0 : 0.0);
+
+            double sum = 0;
+            for (int i = 0; i < n; i++) sum += ok[i];
+            double[] sorted = java.util.Arrays.copyOf(ok, n);
+            java.util.Arrays.sort(sorted);
+            double p95 = sorted[Math.min(n - 1, (int) Math.ceil(n * 0.95) - 1)];
+            return new PingStats(count, sorted[0], sum / n, p95, n > 1 ? jitter / (n - 1) : 0, (double) lost / count);
+        }
     }
 
-    private int readVarInt(DataInputStream in) throws IOException {
-        int value = 0;
-        int shift = 0;
-        byte b;
-        do {
-            b = in.readByte();
-            value |= (b & 0x7F) << shift;
-            shift += 7;
-        } while ((b & 0x80) != 0);
-        return value;
+    private static class CachedStatus {
+        final ServerStatus status;
+        final long time;
+
+        CachedStatus(ServerStatus status, long time) {
+            this.status = status;
+            this.time = time;
+        }
     }
 
     public static class ServerStatus {
@@ -183,8 +353,10 @@ public class ServerStatusService {
         public final int maxPlayers;
         public final int ping;
         private final String host;
-        private final String motdRaw;
+        private final String motdText;
         private final boolean recentWipe;
+        private final PingStats pingStats;
+        private final StatusResponse details;
 
         public ServerStatus(boolean online, int players, int maxPlayers, int ping) {
             this(online, players, maxPlayers, ping, null, null, false);
@@ -194,20 +366,66 @@ public class ServerStatusService {
             this(online, players, maxPlayers, ping, host, null, false);
         }
 
-        public ServerStatus(boolean online, int players, int maxPlayers, int ping, String host, String motdRaw, boolean recentWipe) {
+        public ServerStatus(boolean online, int players, int maxPlayers, int ping, String host, String motdText, boolean recentWipe) {
+            this(online, players, maxPlayers, ping, host, motdText, recentWipe, null, null);
+        }
+
+        public ServerStatus(boolean online, int players, int maxPlayers, int ping, String host, String motdText,
+                            boolean recentWipe, PingStats pingStats, StatusResponse details) {
             this.online = online;
             this.players = players;
             this.maxPlayers = maxPlayers;
             this.ping = ping;
             this.host = host;
-            this.motdRaw = motdRaw;
+            this.motdText = motdText;
             this.recentWipe = recentWipe;
+            this.pingStats = pingStats;
+            this.details = details;
+        }
+
+        public ServerStatus withPingStats(PingStats stats) {
+            return new ServerStatus(online, players, maxPlayers, ping, host, motdText, recentWipe, stats, details);
         }
 
         public boolean hasError() { return !online; }
         public boolean isOnline() { return online; }
         public String getHost() { return host; }
-        public String getMotdRaw() { return motdRaw; }
+        /** MOTD as plain text (the flattened description of the status response), or null. */
+        public String getMotdText() { return motdText; }
         public boolean isRecentWipe() { return recentWipe; }
+        /** Rolling latency statistics of this server, or null if unknown. */
+        public PingStats getPingStats() { return pingStats; }
+        /** Parsed status response (version, favicon), or null when offline. */
+        public StatusResponse getDetails() { return details; }
+    }
+
+    /**
+     * Latency over the recent queries of one server. Millisecond values are -1 when no query succeeded.
+     */
+    public static class PingStats {
+        /** Queries in the window (successful and lost). */
+        public final int samples;
+        public final double minMs;
+        public final double avgMs;
+        public final double p95Ms;
+        /** Mean absolute difference between consecutive round trips. */
+        public final double jitterMs;
+        /** Fraction of queries in the window that got no answer (0.0 to 1.0). */
+        public final double lossRatio;
+
+        public PingStats(int samples, double minMs, double avgMs, double p95Ms, double jitterMs, double lossRatio) {
+            this.samples = samples;
+            this.minMs = minMs;
+            this.avgMs = avgMs;
+            this.p95Ms = p95Ms;
+            this.jitterMs = jitterMs;
+            this.lossRatio = lossRatio;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("min %.0f / avg %.0f / p95 %.0f ms, jitter %.1f ms, loss %.0f%%",
+                minMs, avgMs, p95Ms, jitterMs, lossRatio * 100);
+        }
     }
 }
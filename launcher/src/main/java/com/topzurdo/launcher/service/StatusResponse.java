@@ -0,0 +1,219 @@
+package com.topzurdo.launcher.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Fields of a Server List Ping status response, read with a streaming {@link JsonReader}
+ * straight from the packet buffer.
+ *
+ * <p>No JSON tree and no String of the whole document are built: players, version and the
+ * description text are picked out in one pass, everything else (player samples, mod lists of
+ * modded servers) is skipped. The favicon — usually the bulk of the response — is skipped too
+ * and only read on the first {@link #getFavicon()} call.</p>
+ */
+public final class StatusResponse {
+
+    private final ByteBuffer json;
+    private int onlinePlayers;
+    private int maxPlayers;
+    private String versionName;
+    private int protocol = -1;
+    private String description = "";
+    private boolean hasFavicon;
+    private volatile String favicon;
+
+    private StatusResponse(ByteBuffer json) {
+        this.json = json;
+    }
+
+    /**
+     * Parse a status JSON buffer (UTF-8). The buffer is not consumed and is kept for {@link #getFavicon()}.
+     */
+    public static StatusResponse parse(ByteBuffer json) throws IOException {
+        StatusResponse r = new StatusResponse(json.asReadOnlyBuffer());
+        try (JsonReader reader = open(json)) {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "players":
+                        r.readPlayers(reader);
+                        break;
+                    case "version":
+                        r.readVersion(reader);
+                        break;
+                    case "description":
+                        StringBuilder text = new StringBuilder();
+                        readText(reader, text);
+                        r.description = text.toString();
+                        break;
+                    case "favicon":
+                        r.hasFavicon = reader.peek() == JsonToken.STRING;
+                        reader.skipValue();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+        } catch (IllegalStateException | NumberFormatException e) {
+            throw new IOException("Malformed status response: " + e.getMessage(), e);
+        }
+        return r;
+    }
+
+    public int getOnlinePlayers() { return onlinePlayers; }
+    public int getMaxPlayers() { return maxPlayers; }
+    /** Version name reported by the server (e.g. "Paper 1.16.5"), or null. */
+    public String getVersionName() { return versionName; }
+    /** Protocol number, or -1 if absent. */
+    public int getProtocol() { return protocol; }
+    /** MOTD as plain text (chat components flattened, formatting codes kept). */
+    public String getDescription() { return description; }
+    public boolean hasFavicon() { return hasFavicon; }
+
+    /**
+     * The favicon data URI ("data:image/png;base64,..."), or null. Read from the buffer on first use.
+     */
+    public String getFavicon() {
+        if (!hasFavicon) return null;
+        String f = favicon;
+        if (f == null) {
+            try (JsonReader reader = open(json)) {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    if ("favicon".equals(reader.nextName())) {
+                        f = reader.nextString();
+                        break;
+                    }
+                    reader.skipValue();
+                }
+            } catch (IOException | IllegalStateException e) {
+                return null;
+            }
+            favicon = f;
+        }
+        return f;
+    }
+
+    /**
+     * Case-insensitive substring search without lowercasing a copy of the text.
+     */
+    public static boolean containsIgnoreCase(String text, String needle) {
+        if (text == null) return false;
+        int max = text.length() - needle.length();
+        for (int i = 0; i <= max; i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) return true;
+        }
+        return false;
+    }
+
+    private void readPlayers(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("online".equals(name) && reader.peek() == JsonToken.NUMBER) {
+                onlinePlayers = reader.nextInt();
+            } else if ("max".equals(name) && reader.peek() == JsonToken.NUMBER) {
+                maxPlayers = reader.nextInt();
+            } else {
+                reader.skipValue(); // "sample" and anything else
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readVersion(JsonReader reader) throws IOException {
+        if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+            reader.skipValue();
+            return;
+        }
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if ("name".equals(name) && reader.peek() == JsonToken.STRING) {
+                versionName = reader.nextString();
+            } else if ("protocol".equals(name) && reader.peek() == JsonToken.NUMBER) {
+                protocol = reader.nextInt();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+    }
+
+    /**
+     * Append the plain text of a chat component: a string, an object with "text"/"extra", or an array.
+     */
+    private static void readText(JsonReader reader, StringBuilder out) throws IOException {
+        switch (reader.peek()) {
+            case STRING:
+                out.append(reader.nextString());
+                break;
+            case BEGIN_ARRAY:
+                reader.beginArray();
+                while (reader.hasNext()) readText(reader, out);
+                reader.endArray();
+                break;
+            case BEGIN_OBJECT:
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    if ("text".equals(name) && reader.peek() == JsonToken.STRING) {
+                        out.append(reader.nextString());
+                    } else if ("extra".equals(name)) {
+                        readText(reader, out);
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+                break;
+            default:
+                reader.skipValue();
+        }
+    }
+
+    private static JsonReader open(ByteBuffer json) {
+        return new JsonReader(new InputStreamReader(new ByteBufferInputStream(json.duplicate()), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * InputStream view of a ByteBuffer (no copy of the backing data).
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buf;
+
+        ByteBufferInputStream(ByteBuffer buf) {
+            this.buf = buf;
+        }
+
+        @Override
+        public int read() {
+            return buf.hasRemaining() ? buf.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buf.hasRemaining()) return -1;
+            int n = Math.min(len, buf.remaining());
+            buf.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buf.remaining();
+        }
+    }
+}
@@ -9,6 +9,7 @@ import com.topzurdo.launcher.config.JvmProfile;
 import com.topzurdo.launcher.config.LauncherConfig;
 import com.topzurdo.launcher.config.LauncherMetadata;
 import com.topzurdo.launcher.config.theme.ThemeManager;
+import com.topzurdo.launcher.game.GameOutputPipeline;
 import com.topzurdo.launcher.service.AuthService;
 import com.topzurdo.launcher.service.DownloadService;
 import com.topzurdo.launcher.service.GameService;
@@ -33,6 +34,7 @@ import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.DialogPane;
 import javafx.scene.control.Tooltip;
+import javafx.scene.image.ImageView;
 import javafx.scene.input.KeyCode;
 import javafx.scene.input.KeyEvent;
 import javafx.scene.Parent;
@@ -197,10 +199,11 @@ public class MainController {
             if (s.contains(":")) {
                 String[] p = s.split(":", 2);
                 settingsView.getServerField().setText(p[0]);
-                settingsView.getPortField().setText(p.length > 1 ? p[1] : String.valueOf(Constants.DEFAULT_PORT));
+                settingsView.getPortField().setText(p.length > 1 ? p[1] : "");
             } else {
+                // No explicit port: leave the field empty so the SRV record keeps applying
                 settingsView.getServerField().setText(s);
-                settingsView.getPortField().setText(String.valueOf(Constants.DEFAULT_PORT));
+                settingsView.getPortField().clear();
             }
         }
         settingsView.getLightThemeCheck().setSelected(config.isLightTheme());
@@ -239,14 +242,28 @@ public class MainController {
                 homeView.getProgressPercentLabel().setText(String.format("%.0f%%", p * 100));
             }));
             downloadService.setStatusCallback(s -> Platform.runLater(() -> homeView.getStatusLabel().setText(s)));
+            // Launch checks trust the install manifest; re-validate it against the disk in the background,
+            // then finish sounds/music a previous session left behind
+            downloadService.verifyInstallationAsync().thenRun(downloadService::resumeDeferredAssets);
         });
         services.onGameReady(service -> {
             gameService = service;
             gameService.setStatusCallback(s -> Platform.runLater(() -> homeView.getStatusLabel().setText(s)));
             gameService.setOnGameStarted(() -> Platform.runLater(() -> TopZurdoLauncher.getInstance().minimizeWindow()));
-            gameService.setOnGameExited(() -> Platform.runLater(this::resetPlayButton));
+            gameService.setOnGameExited(() -> Platform.runLater(() -> {
+                resetPlayButton();
+                showGameCrash(gameService.getLastCrash());
+            }));
+        });
+        services.onServerStatusReady(service -> {
+            serverStatusService = service;
+            String[] hp = parseServer();
+            service.setServer(hp[0], Integer.parseInt(hp[1]));
+            service.setStatusCallback(this::applyServerStatus);
+            service.setPauseCondition(() -> gameService != null && gameService.isGameRunning());
+            service.setForeground("home".equals(currentPanel));
+            service.start();
         });
-        services.onServerStatusReady(service -> serverStatusService = service);
     }
 
     private void wireHome() {
@@ -270,6 +287,7 @@ public class MainController {
         });
         settingsView.getInstallOptModsButton().setOnAction(e -> onInstallOptMods());
         settingsView.getApplyBestButton().setOnAction(e -> onApplyBestSettingsWithDialog());
+        settingsView.getRepairButton().setOnAction(e -> onRepairInstallation());
     }
 
     private void wireTitleBar() {
@@ -322,6 +340,17 @@ public class MainController {
             pill.setStatus(StatusPill.Status.LOADING);
             return;
         }
+        String[] hp = parseServer();
+
+        StatusPill pill = mainView.getTitleBar().getServerPill();
+        pill.setText(Constants.Messages.SERVER_LOADING);
+        pill.setStatus(StatusPill.Status.LOADING);
+
+        serverStatusService.checkStatusAsync(hp[0], Integer.parseInt(hp[1]), this::applyServerStatus);
+    }
+
+    /** Last server from the config as {host, port}. */
+    private String[] parseServer() {
         String server = config.getLastServer();
         if (server == null || server.isEmpty()) server = Constants.DEFAULT_SERVER;
         String host = server;
@@ -331,27 +360,34 @@ public class MainController {
             host = p[0];
             try { port = Integer.parseInt(p[1]); } catch (NumberFormatException ignored) {}
         }
+        return new String[] { host, String.valueOf(port) };
+    }
 
+    /** Shows a status result in the title bar pill; called on the FX thread. */
+    private void applyServerStatus(ServerStatusService.ServerStatus status) {
         StatusPill pill = mainView.getTitleBar().getServerPill();
-        pill.setText(Constants.Messages.SERVER_LOADING);
-        pill.setStatus(StatusPill.Status.LOADING);
-
-        serverStatusService.checkStatusAsync(host, port, status -> Platform.runLater(() -> {
-            if (status.hasError()) {
-                pill.setStatus(StatusPill.Status.ERROR);
-                pill.setText(Constants.Messages.SERVER_ERROR_RETRY);
-                mainView.getTitleBar().setWipeBannerVisible(false);
-            } else {
-                pill.setStatus(status.isOnline() ? StatusPill.Status.OK : StatusPill.Status.ERROR);
-                String text = status.isOnline() ? Constants.Messages.SERVER_ONLINE : Constants.Messages.SERVER_OFFLINE;
-                if (status.isOnline() && status.players >= 0 && status.maxPlayers > 0) {
-                    text = text + " (" + status.players + "/" + status.maxPlayers + ")";
-                }
-                pill.setText(text);
-                mainView.getTitleBar().setWipeBannerVisible(status.isRecentWipe());
+        if (status.hasError()) {
+            pill.setStatus(StatusPill.Status.ERROR);
+            pill.setText(Constants.Messages.SERVER_ERROR_RETRY);
+            mainView.getTitleBar().setWipeBannerVisible(false);
+        } else {
+            pill.setStatus(status.isOnline() ? StatusPill.Status.OK : StatusPill.Status.ERROR);
+            String text = status.isOnline() ? Constants.Messages.SERVER_ONLINE : Constants.Messages.SERVER_OFFLINE;
+            if (status.isOnline() && status.players >= 0 && status.maxPlayers > 0) {
+                text = text + " (" + status.players + "/" + status.maxPlayers + ")";
             }
-            Tooltip.install(pill, new Tooltip(status.getHost() != null ? status.getHost() : "—"));
-        }));
+            pill.setText(text);
+            mainView.getTitleBar().setWipeBannerVisible(status.isRecentWipe());
+        }
+        String tip = status.getHost() != null ? status.getHost() : "—";
+        if (status.isOnline() && status.getPingStats() != null) tip += "\n" + status.getPingStats();
+        Tooltip tooltip = new Tooltip(tip);
+        Tooltip.install(pill, tooltip);
+        if (serverStatusService != null) {
+            serverStatusService.getIconAsync(status).thenAccept(icon -> {
+                if (icon != null) Platform.runLater(() -> tooltip.setGraphic(new ImageView(icon)));
+            });
+        }
     }
 
     private void checkExistingAuth() {
@@ -407,6 +443,7 @@ public class MainController {
         else if ("settings".equals(p)) mainView.setContent(settingsView);
         else mainView.setContent(aboutView);
         mainView.getNavRail().setActive(p);
+        if (serverStatusService != null) serverStatusService.setForeground("home".equals(p));
     }
 
     private void onPlayClicked() {
@@ -478,6 +515,18 @@ public class MainController {
         homeView.getPlayButton().setText("ПРИСТУПИТЬ К ИГРЕ");
     }
 
+    private void showGameCrash(GameOutputPipeline.CrashSummary crash) {
+        if (crash == null) return;
+        StringBuilder msg = new StringBuilder();
+        String headline = crash.getHeadline();
+        msg.append(headline != null ? headline : "Игра завершилась с ошибкой.");
+        if (crash.getCrashReportPath() != null) {
+            msg.append("\n\nОтчёт о сбое: ").append(crash.getCrashReportPath());
+        }
+        msg.append("\n\nПолный лог: ~/.topzurdo/logs/game");
+        showElegantError("Игра аварийно завершилась", msg.toString());
+    }
+
     private void launchGame() {
         if (gameService == null) {
             showElegantError("Ошибка", "Сервис игры ещё не инициализирован. Подождите несколько секунд.");
@@ -551,6 +600,27 @@ public class MainController {
             }));
     }
 
+    private void onRepairInstallation() {
+        if (downloadService == null || downloadService.isDownloading()) return;
+        if (!downloadService.isFullyInstalled()) {
+            showElegantInfo("Игра не установлена", "Сначала установите игру — проверять пока нечего.");
+            return;
+        }
+        settingsView.getRepairButton().setDisable(true);
+        settingsView.getRepairButton().setText("Проверка...");
+        downloadService.repairInstallationAsync().whenComplete((report, error) -> Platform.runLater(() -> {
+            settingsView.getRepairButton().setDisable(false);
+            settingsView.getRepairButton().setText("◆ Проверить и восстановить файлы");
+            if (error != null) {
+                showElegantError("Ошибка проверки", error.getCause() != null ? error.getCause().getMessage() : error.getMessage());
+            } else if (report != null) {
+                showElegantInfo("Проверка завершена", String.format(
+                    "Проверено файлов: %d (%.0f МБ/с)%nПовреждено: %d, восстановлено: %d",
+                    report.checked, report.getMegabytesPerSecond(), report.mismatched, report.repaired));
+            }
+        }));
+    }
+
     private void onApplyBestSettingsWithDialog() {
         SmartOptimizationDialog dialog = new SmartOptimizationDialog();
         styleDialogPane(dialog.getDialogPane());
@@ -597,10 +667,17 @@ public class MainController {
         if (!host.isEmpty()) {
             String portStr = settingsView.getPortField().getText().trim();
             int port = Constants.DEFAULT_PORT;
+            boolean explicitPort = false;
             try {
-                if (!portStr.isEmpty()) port = Integer.parseInt(portStr);
+                if (!portStr.isEmpty()) {
+                    port = Integer.parseInt(portStr);
+                    explicitPort = true;
+                }
             } catch (NumberFormatException ignored) {}
-            config.setLastServer(port == Constants.DEFAULT_PORT ? host : host + ":" + port);
+            // A typed port is kept even if it is 25565: an explicit host:port skips the SRV lookup
+            config.setLastServer(explicitPort ? host + ":" + port : host);
+            config.setServerChosen(true);
+            if (serverStatusService != null) serverStatusService.setServer(host, port);
         }
         config.save();
         applyAccentColor();
@@ -627,13 +704,13 @@ public class MainController {
         settingsView.getAutoRamCheck().setSelected(false);
         settingsView.getJvmProfileCombo().setValue(JvmProfile.MEDIUM.getDisplayName());
         settingsView.getJavaPathField().clear();
-        settingsView.getAutoConnectCheck().setSelected(true);
+        settingsView.getAutoConnectCheck().setSelected(false);
         settingsView.getFullscreenCheck().setSelected(false);
         settingsView.getFabricDebugCheck().setSelected(false);
         settingsView.getLightThemeCheck().setSelected(false);
         settingsView.getResolutionCombo().setValue("1920x1080");
         settingsView.getServerField().setText(Constants.DEFAULT_SERVER);
-        settingsView.getPortField().setText(String.valueOf(Constants.DEFAULT_PORT));
+        settingsView.getPortField().clear();
         settingsView.getCustomColorCheck().setSelected(false);
         settingsView.setPreferredColorRGB(0x22D3EE);
         applyThemeFromSettings(); // apply dark theme after reset
@@ -40,6 +40,7 @@ public class SettingsView extends VBox {
     private final CheckBox autoRamCheck;
     private final ComboBox<String> jvmProfileCombo;
     private final Button installOptModsBtn;
+    private final Button repairBtn;
     private final Button browseJavaBtn;
     private final Button applyBestBtn;
     private final Button saveBtn;
@@ -144,7 +145,7 @@ public class SettingsView extends VBox {
         presetFunTimeBtn.setPrefHeight(36);
         presetFunTimeBtn.setOnAction(e -> {
             serverField.setText("mc.funtime.su");
-            portField.setText("25565");
+            portField.clear();
         });
         Button presetOtherBtn = new Button("Другие");
         presetOtherBtn.getStyleClass().add("preset-btn");
@@ -165,6 +166,12 @@ public class SettingsView extends VBox {
         VBox optMods = section("ОПТИМИЗАЦИЯ", installOptModsBtn,
             "FerriteCore (память −30%) + Francium (Random) — прирост FPS, ускорение загрузки");
 
+        repairBtn = new Button("◆ Проверить и восстановить файлы");
+        repairBtn.getStyleClass().add("preset-btn");
+        repairBtn.setPrefHeight(40);
+        VBox repair = section("ФАЙЛЫ ИГРЫ", repairBtn,
+            "Полная проверка клиента, библиотек и ресурсов — перекачиваются только повреждённые файлы");
+
         autoConnectCheck = new CheckBox("Автоматическое подключение к серверу");
         autoConnectCheck.getStyleClass().add("gold-check");
         fullscreenCheck = new CheckBox("Полноэкранный режим");
@@ -211,7 +218,7 @@ public class SettingsView extends VBox {
         HBox btns = new HBox(DesignTokens.SPACING_24, saveBtn, resetBtn);
         btns.setAlignment(Pos.CENTER);
 
-        form.getChildren().addAll(applyBestSection, ram, jvmProfile, optMods, java, res, ver, srv, opts, visualEffects, btns);
+        form.getChildren().addAll(applyBestSection, ram, jvmProfile, optMods, repair, java, res, ver, srv, opts, visualEffects, btns);
 
         ScrollPane scroll = new ScrollPane(form);
         scroll.getStyleClass().add("settings-scroll");
@@ -252,6 +259,7 @@ public class SettingsView extends VBox {
     public CheckBox getAutoRamCheck() { return autoRamCheck; }
     public ComboBox<String> getJvmProfileCombo() { return jvmProfileCombo; }
     public Button getInstallOptModsButton() { return installOptModsBtn; }
+    public Button getRepairButton() { return repairBtn; }
     public Button getApplyBestButton() { return applyBestBtn; }
     public Button getSaveButton() { return saveBtn; }
     public Button getResetButton() { return resetBtn; }
@@ -0,0 +1,65 @@
+package com.topzurdo.launcher.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Digest helpers (SHA-1 for Mojang/Maven files, SHA-512 for Modrinth).
+ */
+public final class HashUtils {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    public static MessageDigest newDigest(String algorithm) {
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " not available", e);
+        }
+    }
+
+    public static MessageDigest sha1() {
+        return newDigest("SHA-1");
+    }
+
+    /**
+     * Hash a whole file with the given algorithm, returns lowercase hex.
+     */
+    public static String hashFile(Path file, String algorithm) throws IOException {
+        MessageDigest digest = newDigest(algorithm);
+        update(digest, file);
+        return toHex(digest.digest());
+    }
+
+    public static String sha1Hex(Path file) throws IOException {
+        return hashFile(file, "SHA-1");
+    }
+
+    /**
+     * Feed the file contents into an existing digest (used when resuming a partial download).
+     */
+    public static void update(MessageDigest digest, Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] buf = new byte[64 * 1024];
+            int n;
+            while ((n = in.read(buf)) != -1) {
+                digest.update(buf, 0, n);
+            }
+        }
+    }
+
+    public static String toHex(byte[] bytes) {
+        char[] out = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            out[i * 2] = HEX[(bytes[i] >> 4) & 0xF];
+            out[i * 2 + 1] = HEX[bytes[i] & 0xF];
+        }
+        return new String(out);
+    }
+
+    private HashUtils() {}
+}
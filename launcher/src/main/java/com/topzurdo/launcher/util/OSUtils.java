@@ -22,5 +22,20 @@ public final class OSUtils {
             : 0;
     }
 
+    /**
+     * Free physical memory in MB, or 0 if unknown.
+     */
+    public static long getFreeMemoryMb() {
+        try {
+            java.lang.management.OperatingSystemMXBean os =
+                java.lang.management.ManagementFactory.getOperatingSystemMXBean();
+            if (os instanceof com.sun.management.OperatingSystemMXBean sun) {
+                long free = sun.getFreeMemorySize();
+                return free > 0 ? free / (1024 * 1024) : 0;
+            }
+        } catch (Throwable ignored) { }
+        return 0;
+    }
+
     private OSUtils() {}
 }
@@ -0,0 +1,192 @@
+package com.topzurdo.launcher.util;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.UnknownHostException;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.naming.Context;
+import javax.naming.NameNotFoundException;
+import javax.naming.NamingEnumeration;
+import javax.naming.NamingException;
+import javax.naming.directory.Attribute;
+import javax.naming.directory.DirContext;
+import javax.naming.directory.InitialDirContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Resolves Minecraft server addresses the way the game does: a {@code _minecraft._tcp} SRV record
+ * redirects "host" (without an explicit port) to its target host and port.
+ *
+ * <p>SRV answers and address lookups are cached in memory, including negative results, so status
+ * polling and launches do not hit DNS every time. JNDI does not expose record TTLs, so fixed
+ * lifetimes are used: {@value #SRV_TTL_MS} ms for SRV answers, {@value #ADDRESS_TTL_MS} ms for
+ * addresses and {@value #NEGATIVE_TTL_MS} ms for "no record" / "no such host".</p>
+ */
+public final class ServerAddressResolver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServerAddressResolver.class);
+
+    public static final int DEFAULT_PORT = 25565;
+
+    private static final long SRV_TTL_MS = 300_000;
+    private static final long ADDRESS_TTL_MS = 60_000;
+    private static final long NEGATIVE_TTL_MS = 30_000;
+
+    private static final ServerAddressResolver SHARED = new ServerAddressResolver();
+
+    private final Map<String, Cached<Target>> srvCache = new ConcurrentHashMap<>();
+    private final Map<String, Cached<InetAddress>> addressCache = new ConcurrentHashMap<>();
+
+    public static ServerAddressResolver shared() {
+        return SHARED;
+    }
+
+    /**
+     * Parse "host" or "host:port" and apply the SRV record when no port was given.
+     */
+    public Target resolveTarget(String address) {
+        String host = address.trim();
+        int colon = host.lastIndexOf(':');
+        if (colon > 0 && host.indexOf(':') == colon) {
+            try {
+                int port = Integer.parseInt(host.substring(colon + 1));
+                return new Target(host.substring(0, colon), port);
+            } catch (NumberFormatException ignored) {
+                host = host.substring(0, colon);
+            }
+        }
+        return resolveTarget(host, DEFAULT_PORT);
+    }
+
+    /**
+     * Apply the SRV record of {@code host} when {@code port} is the default port; otherwise
+     * (or for IP literals and hosts without a record) the address is used as-is.
+     */
+    public Target resolveTarget(String host, int port) {
+        if (port != DEFAULT_PORT || isIpLiteral(host)) return new Target(host, port);
+        String key = host.toLowerCase();
+        Cached<Target> cached = srvCache.get(key);
+        if (cached == null || cached.isExpired()) {
+            Target srv = lookupSrv(host);
+            cached = new Cached<>(srv, srv != null ? SRV_TTL_MS : NEGATIVE_TTL_MS);
+            srvCache.put(key, cached);
+        }
+        return cached.value != null ? cached.value : new Target(host, port);
+    }
+
+    /**
+     * SRV redirection followed by a cached address lookup.
+     *
+     * @throws UnknownHostException if the (target) host does not resolve; also cached briefly
+     */
+    public InetSocketAddress resolve(String host, int port) throws UnknownHostException {
+        return resolve(resolveTarget(host, port));
+    }
+
+    /**
+     * Cached address lookup of an already SRV-resolved target.
+     */
+    public InetSocketAddress resolve(Target target) throws UnknownHostException {
+        String key = target.host.toLowerCase();
+        Cached<InetAddress> cached = addressCache.get(key);
+        if (cached == null || cached.isExpired()) {
+            InetAddress address = null;
+            try {
+                address = InetAddress.getByName(target.host);
+            } catch (UnknownHostException e) {
+                LOGGER.debug("Unknown host {}", target.host);
+            }
+            cached = new Cached<>(address, address != null ? ADDRESS_TTL_MS : NEGATIVE_TTL_MS);
+            addressCache.put(key, cached);
+        }
+        if (cached.value == null) throw new UnknownHostException(target.host);
+        return new InetSocketAddress(cached.value, target.port);
+    }
+
+    private static Target lookupSrv(String host) {
+        Hashtable<String, String> env = new Hashtable<>();
+        env.put(Context.INITIAL_CONTEXT_FACTORY, "com.sun.jndi.dns.DnsContextFactory");
+        env.put(Context.PROVIDER_URL, "dns:");
+        env.put("com.sun.jndi.dns.timeout.initial", "1000");
+        env.put("com.sun.jndi.dns.timeout.retries", "2");
+        DirContext ctx = null;
+        try {
+            ctx = new InitialDirContext(env);
+            Attribute srv = ctx.getAttributes("_minecraft._tcp." + host, new String[] { "SRV" }).get("SRV");
+            if (srv == null) return null;
+            Target best = null;
+            int bestPriority = Integer.MAX_VALUE;
+            int bestWeight = -1;
+            NamingEnumeration<?> records = srv.getAll();
+            while (records.hasMore()) {
+                // "priority weight port target."
+                String[] parts = records.next().toString().trim().split("\\s+");
+                if (parts.length < 4) continue;
+                int priority = Integer.parseInt(parts[0]);
+                int weight = Integer.parseInt(parts[1]);
+                if (priority < bestPriority || (priority == bestPriority && weight > bestWeight)) {
+                    String target = parts[3].endsWith(".") ? parts[3].substring(0, parts[3].length() - 1) : parts[3];
+                    best = new Target(target, Integer.parseInt(parts[2]));
+                    bestPriority = priority;
+                    bestWeight = weight;
+                }
+            }
+            if (best != null) LOGGER.debug("SRV {} -> {}:{}", host, best.host, best.port);
+            return best;
+        } catch (NameNotFoundException e) {
+            return null;
+        } catch (NamingException | NumberFormatException e) {
+            LOGGER.debug("SRV lookup failed for {}: {}", host, e.getMessage());
+            return null;
+        } finally {
+            if (ctx != null) {
+                try {
+                    ctx.close();
+                } catch (NamingException ignored) { }
+            }
+        }
+    }
+
+    private static boolean isIpLiteral(String host) {
+        return host.indexOf(':') >= 0 || host.matches("\\d{1,3}(\\.\\d{1,3}){3}");
+    }
+
+    /**
+     * Host and port to actually connect to.
+     */
+    public static final class Target {
+        public final String host;
+        public final int port;
+
+        public Target(String host, int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        @Override
+        public String toString() {
+            return host + ":" + port;
+        }
+    }
+
+    private static final class Cached<T> {
+        final T value;
+        final long expiresAt;
+
+        Cached(T value, long ttlMs) {
+            this.value = value;
+            this.expiresAt = System.currentTimeMillis() + ttlMs;
+        }
+
+        boolean isExpired() {
+            return System.currentTimeMillis() >= expiresAt;
+        }
+    }
+
+    private ServerAddressResolver() {}
+}
@@ -0,0 +1,149 @@
+package com.topzurdo.launcher.download;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DownloadSourcesTest {
+
+    private static final String ASSET_URL = "https://resources.download.minecraft.net/ab/ab12cd";
+    private static final String BUNDLE_URL = "https://resources.download.minecraft.net/bundles/17.zip";
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mirrorsAreOrderedByLatencyWithUpstreamLast() throws IOException {
+        DownloadSource slow = mirror("slow", 80);
+        DownloadSource fast = mirror("fast", 5);
+        DownloadSource tieFirst = mirror("tie-a", 20);
+        DownloadSource tieSecond = mirror("tie-b", 20);
+
+        List<DownloadSource> ordered = new DownloadSources(List.of(slow, tieFirst, fast, tieSecond)).ordered();
+
+        assertEquals(List.of(fast, tieFirst, tieSecond, slow, DownloadSources.UPSTREAM), ordered);
+    }
+
+    @Test
+    void unreachableMirrorIsDropped() throws IOException {
+        DownloadSource missing = new LocalDirectorySource(dir.resolve("not-mounted"));
+        DownloadSource present = mirror("present", 10);
+
+        DownloadSources sources = new DownloadSources(List.of(missing, present));
+
+        assertEquals(List.of(present, DownloadSources.UPSTREAM), sources.ordered());
+        assertTrue(sources.hasMirrors());
+    }
+
+    @Test
+    void withoutMirrorsOnlyUpstreamIsUsed() {
+        DownloadSources sources = new DownloadSources(List.of());
+
+        assertEquals(List.of(DownloadSources.UPSTREAM), sources.ordered());
+        assertFalse(sources.hasMirrors());
+    }
+
+    @Test
+    void fileMissingFromFastestMirrorFallsThroughToTheNext() throws IOException {
+        DownloadSource fast = mirror("fast", 1);
+        DownloadSource slow = mirror("slow", 50);
+        put("slow", ASSET_URL, "from slow mirror");
+
+        DownloadSources sources = new DownloadSources(List.of(slow, fast));
+
+        assertEquals("from slow mirror", sources.getString(ASSET_URL));
+    }
+
+    @Test
+    void fastestMirrorWinsWhenBothHaveTheFile() throws IOException {
+        DownloadSource fast = mirror("fast", 1);
+        DownloadSource slow = mirror("slow", 50);
+        put("fast", ASSET_URL, "from fast mirror");
+        put("slow", ASSET_URL, "from slow mirror");
+
+        assertEquals("from fast mirror", new DownloadSources(List.of(slow, fast)).getString(ASSET_URL));
+    }
+
+    @Test
+    void rangeFromDirectoryMirrorFollowsHttpStatusContract() throws IOException {
+        DownloadSources sources = new DownloadSources(List.of(mirror("m", 1)));
+        put("m", ASSET_URL, "0123456789");
+
+        try (DownloadSources.Response whole = sources.openRange(ASSET_URL, 0)) {
+            assertEquals(200, whole.statusCode);
+            assertEquals(10, whole.contentLength);
+        }
+        try (DownloadSources.Response rest = sources.openRange(ASSET_URL, 4)) {
+            assertEquals(206, rest.statusCode);
+            assertEquals(6, rest.contentLength);
+            assertEquals("456789", new String(rest.body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        try (DownloadSources.Response past = sources.openRange(ASSET_URL, 10)) {
+            assertEquals(416, past.statusCode);
+        }
+    }
+
+    @Test
+    void mirrorOnlyFileNeverFallsBackToUpstream() throws IOException {
+        DownloadSources sources = new DownloadSources(List.of(mirror("a", 1), mirror("b", 2)));
+
+        assertThrows(IOException.class, () -> sources.openFromMirrors(BUNDLE_URL));
+
+        put("b", BUNDLE_URL, "bundle");
+        try (DownloadSources.Response r = sources.openFromMirrors(BUNDLE_URL)) {
+            assertEquals("bundle", new String(r.body.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void directoryMirrorStaysInsideItsRoot() throws IOException {
+        LocalDirectorySource source = mirror("m", 1);
+        Files.writeString(dir.resolve("secret.txt"), "outside");
+
+        assertNull(source.resolve("https://resources.download.minecraft.net/../../secret.txt"));
+        assertNull(source.resolve("https://resources.download.minecraft.net/ab/missing"));
+    }
+
+    @Test
+    void parseMapsSpecsToSourceTypes() {
+        List<DownloadSource> sources = DownloadSources.parse(Arrays.asList(
+                "http://192.168.1.10:8080/mc", " ", null, dir.toString(), dir.toUri().toString()));
+
+        assertEquals(3, sources.size());
+        assertInstanceOf(HttpMirrorSource.class, sources.get(0));
+        assertInstanceOf(LocalDirectorySource.class, sources.get(1));
+        assertInstanceOf(LocalDirectorySource.class, sources.get(2));
+    }
+
+    /**
+     * Directory mirror under the temp dir with a fixed probe latency.
+     */
+    private LocalDirectorySource mirror(String name, long latencyMs) throws IOException {
+        Path root = Files.createDirectories(dir.resolve(name));
+        return new LocalDirectorySource(root) {
+            @Override
+            public long probeLatencyMs() {
+                return latencyMs;
+            }
+        };
+    }
+
+    private void put(String mirror, String upstreamUrl, String content) throws IOException {
+        Path file = dir.resolve(mirror).resolve(DownloadSource.mirrorPath(upstreamUrl));
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, content);
+    }
+}
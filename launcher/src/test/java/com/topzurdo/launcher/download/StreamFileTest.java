@@ -0,0 +1,261 @@
+package com.topzurdo.launcher.download;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.topzurdo.launcher.config.LauncherConfig;
+import com.topzurdo.launcher.util.HashUtils;
+
+/**
+ * {@code MinecraftDownloader.streamFile} against a local HTTP server: retries and the .part resume
+ * contract (206 appends, 200 restarts, 416 means the part is whole, bad data is deleted).
+ */
+class StreamFileTest {
+
+    private static final int SIZE = 256 * 1024;
+
+    @TempDir
+    Path dir;
+
+    private HttpServer server;
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+    /** Released when the test ends, so a stalled handler does not outlive it. */
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Handler handler;
+
+    private byte[] content;
+    private String sha1;
+    private MinecraftDownloader downloader;
+
+    interface Handler {
+        void handle(HttpExchange exchange, int request) throws IOException, InterruptedException;
+    }
+
+    @BeforeAll
+    static void shortIdleTimeout() {
+        // Read by LauncherHttp when its shared client is created, i.e. by the first request in this JVM
+        LauncherConfig.getInstance().setHttpReadTimeoutSec(1);
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[SIZE];
+        new Random().nextBytes(content);
+        sha1 = sha1(content);
+
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            String range = exchange.getRequestHeaders().getFirst("Range");
+            ranges.add(range == null ? "" : range);
+            try {
+                handler.handle(exchange, ranges.size());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+
+        ContentStore store = new ContentStore(dir.resolve("cache"), 64L * 1024 * 1024);
+        downloader = new MinecraftDownloader(dir.resolve("minecraft"), store, new DownloadSources(List.of()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        done.countDown();
+        server.stop(0);
+    }
+
+    @Test
+    @Timeout(30)
+    void stalledBodyIsRetriedAndResumedFromThePartFile() throws Exception {
+        int half = SIZE / 2;
+        handler = (exchange, request) -> {
+            if (request == 1) {
+                // Announce the whole file, send half of it, then go silent
+                exchange.sendResponseHeaders(200, SIZE);
+                OutputStream out = exchange.getResponseBody();
+                out.write(content, 0, half);
+                out.flush();
+                done.await(20, TimeUnit.SECONDS);
+            } else {
+                sendRange(exchange);
+            }
+        };
+        Path target = target("stall.jar");
+
+        download(target, SIZE);
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertFalse(Files.exists(part(target)));
+        assertEquals(List.of("", "bytes=" + half + "-"), ranges);
+    }
+
+    @Test
+    void partialPartFileIsResumedWithRange() throws Exception {
+        handler = (exchange, request) -> sendRange(exchange);
+        Path target = target("resume.jar");
+        writePart(target, Arrays.copyOf(content, 1000));
+
+        download(target, SIZE);
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(List.of("bytes=1000-"), ranges);
+    }
+
+    @Test
+    void rangeIgnoredWith200RestartsFromZero() throws Exception {
+        handler = (exchange, request) -> {
+            exchange.sendResponseHeaders(200, content.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(content);
+            }
+        };
+        Path target = target("norange.jar");
+        writePart(target, Arrays.copyOf(content, 1000));
+
+        download(target, SIZE);
+
+        // Had the 200 body been appended, the file would be 1000 bytes too long
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(List.of("bytes=1000-"), ranges);
+    }
+
+    @Test
+    void completePartFileWithUnknownSizeIsVerifiedAfter416() throws Exception {
+        handler = (exchange, request) -> sendRange(exchange);
+        Path target = target("whole.jar");
+        writePart(target, content);
+
+        download(target, 0);
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(List.of("bytes=" + SIZE + "-"), ranges);
+        assertFalse(Files.exists(part(target)));
+    }
+
+    @Test
+    void completePartFileWithKnownSizeNeedsNoRequest() throws Exception {
+        handler = (exchange, request) -> sendRange(exchange);
+        Path target = target("known.jar");
+        writePart(target, content);
+
+        download(target, SIZE);
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertTrue(ranges.isEmpty());
+    }
+
+    @Test
+    void oversizedPartFileIsDiscarded() throws Exception {
+        handler = (exchange, request) -> sendRange(exchange);
+        Path target = target("overshoot.jar");
+        byte[] tooLong = Arrays.copyOf(content, SIZE + 10);
+        writePart(target, tooLong);
+
+        download(target, SIZE);
+
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(List.of(""), ranges);
+    }
+
+    @Test
+    void corruptPartFileIsDeletedAndDownloadedAgain() throws Exception {
+        handler = (exchange, request) -> sendRange(exchange);
+        Path target = target("corrupt.jar");
+        byte[] prefix = Arrays.copyOf(content, 1000);
+        prefix[10] ^= 0x55;
+        writePart(target, prefix);
+
+        download(target, SIZE);
+
+        // First attempt resumes the bad prefix and fails the SHA-1; the second starts over
+        assertArrayEquals(content, Files.readAllBytes(target));
+        assertEquals(List.of("bytes=1000-", ""), ranges);
+    }
+
+    @Test
+    void wrongContentFailsAfterAllAttemptsWithoutLeavingFiles() throws Exception {
+        handler = (exchange, request) -> sendRange(exchange);
+        Path target = target("wrong.jar");
+
+        IOException e = assertThrows(IOException.class,
+            () -> downloader.streamFile(url("wrong.jar"), target, SIZE, "0".repeat(40),
+                DownloadProgress.Stage.LIBRARIES, null));
+
+        assertTrue(e.getMessage().contains("SHA-1 mismatch"), e.getMessage());
+        assertEquals(3, ranges.size());
+        assertFalse(Files.exists(target));
+        assertFalse(Files.exists(part(target)));
+    }
+
+    /**
+     * Honour "Range: bytes=N-" with a 206 of the rest of the content, like a real host.
+     */
+    private void sendRange(HttpExchange exchange) throws IOException {
+        String range = exchange.getRequestHeaders().getFirst("Range");
+        int from = range == null ? 0 : Integer.parseInt(range.substring(6, range.length() - 1));
+        if (from >= content.length) {
+            exchange.sendResponseHeaders(416, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(from > 0 ? 206 : 200, content.length - from);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(content, from, content.length - from);
+        }
+    }
+
+    private Path target(String name) {
+        return dir.resolve("minecraft/libraries").resolve(name);
+    }
+
+    private static Path part(Path target) {
+        return target.resolveSibling(target.getFileName() + ".part");
+    }
+
+    private static void writePart(Path target, byte[] bytes) throws IOException {
+        Files.createDirectories(target.getParent());
+        Files.write(part(target), bytes);
+    }
+
+    private void download(Path target, long expectedSize) throws Exception {
+        downloader.streamFile(url(target.getFileName().toString()), target, expectedSize, sha1,
+            DownloadProgress.Stage.LIBRARIES, null);
+    }
+
+    private String url(String name) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + name;
+    }
+
+    private static String sha1(byte[] bytes) {
+        return HashUtils.toHex(HashUtils.sha1().digest(bytes));
+    }
+}
@@ -0,0 +1,144 @@
+package com.topzurdo.launcher.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class GameOutputPipelineTest {
+
+    /** Same as GameOutputPipeline.RING_CAPACITY. */
+    private static final int RING_CAPACITY = 1 << 20;
+
+    @TempDir
+    Path logsDir;
+
+    @Test
+    void tailReturnsLastLinesWithoutCarriageReturns() throws Exception {
+        GameOutputPipeline pipeline = run(chunked("one\r\ntwo\nthree\nfour\n", 1024));
+
+        assertEquals(List.of("three", "four"), pipeline.getTail(2));
+        assertEquals(List.of("one", "two", "three", "four"), pipeline.getTail(10));
+    }
+
+    @Test
+    void tailKeepsUnterminatedLastLine() throws Exception {
+        GameOutputPipeline pipeline = run(chunked("first\nsecond", 1024));
+
+        assertEquals(List.of("first", "second"), pipeline.getTail(10));
+    }
+
+    @Test
+    void linesSplitAcrossChunksAreScannedWhole() throws Exception {
+        String output = "[Render thread/INFO]: Loading\n"
+                + "[Render thread/FATAL]: Unreported exception thrown!\n"
+                + "done\n";
+        // Three-byte reads cut every line, and the marker itself, across chunk boundaries
+        GameOutputPipeline pipeline = run(chunked(output, 3));
+
+        GameOutputPipeline.CrashSummary summary = pipeline.getCrashSummary(10);
+        assertEquals(1, summary.getMarkerCount());
+        assertEquals("[Render thread/FATAL]: Unreported exception thrown!", summary.getHeadline());
+        assertEquals(List.of("[Render thread/INFO]: Loading",
+                "[Render thread/FATAL]: Unreported exception thrown!", "done"), summary.getTail());
+    }
+
+    @Test
+    void ringBufferWrapDropsTheCutLineAndKeepsTheNewest() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        int lines = 0;
+        while (sb.length() < RING_CAPACITY + RING_CAPACITY / 2) {
+            sb.append(String.format("line %07d\n", lines++));
+        }
+        GameOutputPipeline pipeline = run(chunked(sb.toString(), 64 * 1024 - 7));
+
+        GameOutputPipeline.CrashSummary summary = pipeline.getCrashSummary(Integer.MAX_VALUE);
+        assertEquals(sb.length(), summary.getTotalBytes());
+        List<String> tail = summary.getTail();
+        assertEquals(String.format("line %07d", lines - 1), tail.get(tail.size() - 1));
+        // Only whole lines survive: the one cut by the wrap-around is dropped, the rest are contiguous
+        int first = Integer.parseInt(tail.get(0).substring(5));
+        assertEquals(lines - first, tail.size());
+        assertTrue(tail.size() * 13 <= RING_CAPACITY);
+        assertTrue((tail.size() + 1) * 13 > RING_CAPACITY);
+    }
+
+    @Test
+    void headlinePrefersCrashReportThenLatestFatal() throws Exception {
+        GameOutputPipeline pipeline = run(chunked(
+                "java.lang.IllegalStateException: mixin warning, ignored\n"
+                + "[main/FATAL]: Game crashed\n"
+                + "java.lang.NullPointerException: in crash handler\n", 1024));
+        assertEquals("[main/FATAL]: Game crashed", pipeline.getCrashSummary(0).getHeadline());
+
+        pipeline = run(chunked(
+                "java.lang.IllegalStateException: first\n"
+                + "java.lang.RuntimeException: last\n", 1024));
+        assertEquals("java.lang.RuntimeException: last", pipeline.getCrashSummary(0).getHeadline());
+
+        pipeline = run(chunked(
+                "[main/FATAL]: Game crashed\n"
+                + "#@!@# Game crashed! Crash report saved to: #@!@# C:\\crash-reports\\crash.txt\n", 1024));
+        GameOutputPipeline.CrashSummary summary = pipeline.getCrashSummary(0);
+        assertTrue(summary.hasCrashReport());
+        assertEquals("C:\\crash-reports\\crash.txt", summary.getCrashReportPath());
+        assertTrue(summary.getHeadline().contains("Crash report saved"));
+    }
+
+    @Test
+    void noMarkersNoHeadline() throws Exception {
+        GameOutputPipeline.CrashSummary summary = run(chunked("all good\n", 1024)).getCrashSummary(5);
+
+        assertFalse(summary.hasCrashReport());
+        assertNull(summary.getHeadline());
+        assertEquals(0, summary.getDroppedBytes());
+    }
+
+    private GameOutputPipeline run(InputStream output) throws InterruptedException {
+        GameOutputPipeline pipeline = new GameOutputPipeline(logsDir, StandardCharsets.UTF_8);
+        pipeline.start(output);
+        pipeline.await(10_000);
+        return pipeline;
+    }
+
+    /**
+     * Stream that hands out the text in reads of at most {@code chunk} bytes, like a pipe would.
+     */
+    private static InputStream chunked(String text, int chunk) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> parts = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += chunk) {
+            parts.add(Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunk)));
+        }
+        return new InputStream() {
+            private int part;
+            private ByteArrayInputStream current = new ByteArrayInputStream(new byte[0]);
+
+            @Override
+            public int read() {
+                byte[] one = new byte[1];
+                return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) {
+                while (current.available() == 0) {
+                    if (part == parts.size()) return -1;
+                    current = new ByteArrayInputStream(parts.get(part++));
+                }
+                return current.read(b, off, len);
+            }
+        };
+    }
+}